@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+#
+# Compares cold-start times of the startup modes, from the same build:
+#   ./mvnw -Pfast-start package -DskipTests && scripts/measure-startup.sh [runs]
+#
+# Modes (all with the prod profile; no MongoDB needed, nothing connects before "Started"):
+#   fat-jar      java -jar on the nested fat jar (the previous image)
+#   extracted    extracted jar + lib/
+#   cds          extracted + CDS archive
+#   lazy         extracted + fast-start profile (lazy initialization)
+#   fast-start   extracted + CDS archive + AOT context + fast-start profile (the image)
+#
+# Reports the averages of Spring's "Started ... in X seconds (process running for Y)":
+# Y includes JVM startup, which is what CDS improves.
+set -euo pipefail
+
+RUNS=${1:-5}
+cd "$(dirname "$0")/.."
+
+JAR=$(ls target/algo-arena-*.jar | grep -v -- '-plain' | head -n 1)
+WORK=target/startup
+rm -rf "$WORK"
+mkdir -p "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" > /dev/null
+APP="$WORK/app/$(basename "$JAR")"
+
+# Placeholders only have to resolve; features that reach MongoDB on ApplicationReadyEvent are off
+export MONGODB_URI=mongodb://localhost:27017/startup JWT_SECRET=startupMeasurementSecretLongEnoughForHS256
+export GOOGLE_CLIENT_ID=startup GOOGLE_CLIENT_SECRET=startup GITHUB_CLIENT_ID=startup GITHUB_CLIENT_SECRET=startup
+APP_ARGS=(--server.port=0 --login-events.enabled=false --analytics.checkpoint.enabled=false --admin-stats.reconcile.enabled=false)
+
+echo "Training CDS archives"
+java -XX:ArchiveClassesAtExit="$WORK/plain.jsa" -Dspring.context.exit=onRefresh \
+    -jar "$APP" --spring.profiles.active=prod "${APP_ARGS[@]}" > "$WORK/train-plain.log" 2>&1
+java -XX:ArchiveClassesAtExit="$WORK/aot.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$APP" --spring.profiles.active=prod,fast-start "${APP_ARGS[@]}" > "$WORK/train-aot.log" 2>&1
+
+# measure <mode> <java args...>: starts the app RUNS times, stops it once it logged "Started"
+measure() {
+    local mode=$1
+    shift
+    local started_total=0 process_total=0
+    for ((run = 1; run <= RUNS; run++)); do
+        local log="$WORK/$mode-$run.log"
+        java "$@" "${APP_ARGS[@]}" > "$log" 2>&1 &
+        local pid=$!
+        local line=""
+        for ((wait = 0; wait < 1200; wait++)); do
+            line=$(grep -o 'Started AlgoArenaApplication in [0-9.]* seconds (process running for [0-9.]*)' "$log" || true)
+            if [[ -n "$line" ]] || ! kill -0 "$pid" 2> /dev/null; then
+                break
+            fi
+            sleep 0.1
+        done
+        kill "$pid" 2> /dev/null || true
+        wait "$pid" 2> /dev/null || true
+        if [[ -z "$line" ]]; then
+            echo "$mode: run $run did not start, see $log" >&2
+            exit 1
+        fi
+        local numbers
+        read -r -a numbers <<< "$(echo "$line" | grep -o '[0-9]\+\.[0-9]\+' | tr '\n' ' ')"
+        started_total=$(awk "BEGIN { print $started_total + ${numbers[0]} }")
+        process_total=$(awk "BEGIN { print $process_total + ${numbers[1]} }")
+    done
+    awk -v mode="$mode" -v started="$started_total" -v process="$process_total" -v runs="$RUNS" \
+        'BEGIN { printf "%-11s %12.3f %14.3f\n", mode, started / runs, process / runs }'
+}
+
+printf "\n%-11s %12s %14s   (averages of %d runs)\n" "mode" "context (s)" "process (s)" "$RUNS"
+measure fat-jar -jar "$JAR" --spring.profiles.active=prod
+measure extracted -jar "$APP" --spring.profiles.active=prod
+measure cds -XX:SharedArchiveFile="$WORK/plain.jsa" -jar "$APP" --spring.profiles.active=prod
+measure lazy -jar "$APP" --spring.profiles.active=prod,fast-start
+measure fast-start -XX:SharedArchiveFile="$WORK/aot.jsa" -Dspring.aot.enabled=true -jar "$APP" --spring.profiles.active=prod,fast-start
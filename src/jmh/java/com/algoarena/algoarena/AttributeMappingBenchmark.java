@@ -0,0 +1,67 @@
+package com.algoarena.algoarena;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserService.extract* mapping of Google and GitHub OAuth2 attributes to User fields
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttributeMappingBenchmark {
+
+    @Param({"google", "github"})
+    public String provider;
+
+    private UserService userService;
+    private OAuth2User oauth2User;
+
+    @Setup
+    public void setUp() {
+        userService = new UserService();
+        Map<String, Object> attributes = "google".equals(provider)
+            ? Map.of(
+                "sub", "104729",
+                "name", "Bench User",
+                "email", "bench@example.com",
+                "picture", "https://example.com/a.png")
+            : Map.of(
+                "id", 104729,
+                "login", "bench",
+                "name", "Bench User",
+                "email", "bench@example.com",
+                "avatar_url", "https://example.com/a.png");
+        String nameKey = "google".equals(provider) ? "sub" : "id";
+        oauth2User = new DefaultOAuth2User(List.of(new SimpleGrantedAuthority("OAUTH2_USER")), attributes, nameKey);
+    }
+
+    @Benchmark
+    public void extractAll(Blackhole blackhole) {
+        blackhole.consume(userService.extractProviderId(oauth2User, provider));
+        blackhole.consume(userService.extractName(oauth2User, provider));
+        blackhole.consume(userService.extractEmail(oauth2User, provider));
+        blackhole.consume(userService.extractUsername(oauth2User, provider));
+        blackhole.consume(userService.extractAvatarUrl(oauth2User, provider));
+    }
+}
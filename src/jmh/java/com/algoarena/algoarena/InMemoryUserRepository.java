@@ -0,0 +1,304 @@
+package com.algoarena.algoarena;
+
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe in-memory UserRepository for the "loadtest" profile (see LoadTest)
+ *
+ * Takes precedence over the MongoDB repository, which is still created but never used.
+ * Behaves like the collection for everything the application calls: ids are ObjectId hex
+ * strings, providerId is unique (DuplicateKeyException, like the unique index) and entities
+ * are copied in and out, so callers never share instances. Query-by-example is not supported.
+ */
+@Repository
+@Primary
+@Profile("loadtest")
+public class InMemoryUserRepository implements UserRepository {
+
+    private final ConcurrentHashMap<String, User> usersById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> idsByProviderId = new ConcurrentHashMap<>();
+
+    private record VersionView(String getId, Long getProfileVersion, LocalDateTime getTokensRevokedAt)
+        implements ProfileVersionView {}
+
+    // ----- custom queries -----
+
+    @Override
+    public Optional<User> findByProviderId(String providerId) {
+        String id = providerId != null ? idsByProviderId.get(providerId) : null;
+        return id != null ? findById(id) : Optional.empty();
+    }
+
+    @Override
+    public Optional<User> findByProviderAndProviderId(String provider, String providerId) {
+        return findByProviderId(providerId).filter(user -> Objects.equals(provider, user.getProvider()));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return findFirst(user -> Objects.equals(email, user.getEmail()));
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return findFirst(user -> Objects.equals(username, user.getUsername()));
+    }
+
+    @Override
+    public boolean existsByProviderId(String providerId) {
+        return providerId != null && idsByProviderId.containsKey(providerId);
+    }
+
+    @Override
+    public Optional<ProfileVersionView> findProfileVersionByProviderId(String providerId) {
+        String id = providerId != null ? idsByProviderId.get(providerId) : null;
+        User user = id != null ? usersById.get(id) : null;
+        return user != null
+            ? Optional.of(new VersionView(user.getId(), user.getProfileVersion(), user.getTokensRevokedAt()))
+            : Optional.empty();
+    }
+
+    // ----- query classes (one copy, read preferences do not apply) -----
+
+    @Override
+    public Optional<User> findIdentityByProviderId(String providerId) {
+        return findByProviderId(providerId);
+    }
+
+    @Override
+    public Optional<ProfileVersionView> findIdentityVersionByProviderId(String providerId) {
+        return findProfileVersionByProviderId(providerId);
+    }
+
+    @Override
+    public Optional<User> findForUpdate(String userId) {
+        return findById(userId);
+    }
+
+    @Override
+    public List<User> findAllForListing() {
+        return findAll();
+    }
+
+    @Override
+    public Optional<User> searchByEmail(String email) {
+        return findByEmail(email);
+    }
+
+    @Override
+    public synchronized <S extends User> S saveTracked(S entity) {
+        // Like the real stores: an update stores the stored copy's profileVersion plus one
+        User stored = entity.getId() != null ? usersById.get(entity.getId()) : null;
+        if (stored != null) {
+            entity.setProfileVersion(stored.getProfileVersion() + 1);
+        }
+        return save(entity);
+    }
+
+    // ----- CRUD -----
+
+    @Override
+    public <S extends User> S save(S entity) {
+        if (entity.getId() == null) {
+            entity.setId(new ObjectId().toHexString());
+        }
+        String id = entity.getId();
+
+        if (entity.getProviderId() != null) {
+            String owner = idsByProviderId.putIfAbsent(entity.getProviderId(), id);
+            if (owner != null && !owner.equals(id)) {
+                throw new DuplicateKeyException("Duplicate providerId " + entity.getProviderId());
+            }
+        }
+
+        User previous = usersById.put(id, copyOf(entity));
+        if (previous != null && previous.getProviderId() != null
+                && !previous.getProviderId().equals(entity.getProviderId())) {
+            idsByProviderId.remove(previous.getProviderId(), id);
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends User> S insert(S entity) {
+        if (entity.getId() != null && usersById.containsKey(entity.getId())) {
+            throw new DuplicateKeyException("Duplicate id " + entity.getId());
+        }
+        return save(entity);
+    }
+
+    @Override
+    public <S extends User> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public <S extends User> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        User user = usersById.get(id);
+        return user != null ? Optional.of(copyOf(user)) : Optional.empty();
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return usersById.containsKey(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>(usersById.size());
+        usersById.values().forEach(user -> users.add(copyOf(user)));
+        return users;
+    }
+
+    @Override
+    public List<User> findAllById(Iterable<String> ids) {
+        List<User> users = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(users::add));
+        return users;
+    }
+
+    @Override
+    public List<User> findAll(Sort sort) {
+        if (sort.isSorted()) {
+            throw new UnsupportedOperationException("Sorted queries are not supported in memory");
+        }
+        return findAll();
+    }
+
+    @Override
+    public Page<User> findAll(Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            throw new UnsupportedOperationException("Sorted queries are not supported in memory");
+        }
+        List<User> all = findAll();
+        all.sort(Comparator.comparing(User::getId));
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    @Override
+    public long count() {
+        return usersById.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        User removed = usersById.remove(id);
+        if (removed != null && removed.getProviderId() != null) {
+            idsByProviderId.remove(removed.getProviderId(), id);
+        }
+    }
+
+    @Override
+    public void delete(User entity) {
+        if (entity.getId() != null) {
+            deleteById(entity.getId());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends User> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        usersById.clear();
+        idsByProviderId.clear();
+    }
+
+    // ----- query by example (not used by the application) -----
+
+    @Override
+    public <S extends User> Optional<S> findOne(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User> List<S> findAll(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User> long count(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User> boolean exists(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupportedExample();
+    }
+
+    private Optional<User> findFirst(Predicate<User> predicate) {
+        return usersById.values().stream().filter(predicate).findFirst().map(InMemoryUserRepository::copyOf);
+    }
+
+    private static UnsupportedOperationException unsupportedExample() {
+        return new UnsupportedOperationException("Query by example is not supported in memory");
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User(user.getProviderId(), user.getProvider(), user.getName(), user.getEmail(),
+            user.getUsername(), user.getAvatarUrl());
+        copy.setId(user.getId());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setLastLoginAt(user.getLastLoginAt());
+        copy.setProfileVersion(user.getProfileVersion());
+        copy.setTokensRevokedAt(user.getTokensRevokedAt());
+        copy.setLoginCount(user.getLoginCount());
+        return copy;
+    }
+}
@@ -0,0 +1,80 @@
+package com.algoarena.algoarena;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and parsing in JwtUtil.
+ *
+ * Run all benchmarks with
+ *   ./mvnw -Pjmh test-compile exec:exec
+ * or only these with -Djmh.args="JwtUtilBenchmark -prof gc". Every benchmark reports
+ * throughput and average time; -prof gc adds the allocation rate (gc.alloc.rate.norm = bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        user = sampleUser();
+        accessToken = jwtUtil.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtUtil.generateRefreshToken(user);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(accessToken);
+    }
+
+    /**
+     * JwtUtil with the application defaults, without a Spring context
+     */
+    static JwtUtil newJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "benchmarkSecretThatIsLongEnoughForTheHS256Algorithm");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpirationMs", 604800000L);
+        return jwtUtil;
+    }
+
+    static User sampleUser() {
+        User user = new User("104729", "google", "Bench User", "bench@example.com", "bench", "https://example.com/a.png");
+        user.setId("65f0c0ffee0000000000beef");
+        return user;
+    }
+}
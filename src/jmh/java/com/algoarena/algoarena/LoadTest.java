@@ -0,0 +1,258 @@
+package com.algoarena.algoarena;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test of the servlet stack without MongoDB or OAuth providers.
+ *
+ * Not a unit test: boots the application with the "loadtest" profile (InMemoryUserRepository,
+ * Mongo-backed features off, rate limits off), seeds users, mints their tokens with JwtUtil and
+ * drives a weighted mix of requests from virtual-thread workers, e.g.
+ *   ./mvnw -Pjmh test-compile exec:exec -Djmh.main=com.algoarena.algoarena.LoadTest \
+ *       -Djmh.args="--users=1000 --concurrency=64 --duration=30 --warmup=10"
+ *
+ * Options (all optional):
+ *   --users=N         seeded users (1000)
+ *   --concurrency=N   workers, each with one request in flight (64)
+ *   --duration=S      measured seconds (30), after --warmup=S unmeasured seconds (10)
+ *   --rate=R          total requests/s; without it workers run closed-loop as fast as they can.
+ *                     With a rate, latency is recorded against the intended send time, so a
+ *                     stalled server shows up in the percentiles (no coordinated omission)
+ *   --mix=...         weights per endpoint (profile:40,me:30,refresh:10,validate:15,admin:5)
+ *
+ * Prints, per endpoint and in total: requests, errors (non-2xx/304 or I/O), requests/s and
+ * HdrHistogram latency percentiles in milliseconds (HdrHistogram comes with Micrometer).
+ */
+public class LoadTest {
+
+    private enum Endpoint { PROFILE, ME, REFRESH, VALIDATE, ADMIN }
+
+    private record Credentials(String accessToken, String refreshToken) {}
+
+    /**
+     * Per-endpoint results; Recorder allows concurrent recording without locks
+     */
+    private static final class Stats {
+        final Recorder latencyMicros = new Recorder(3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        Map<Endpoint, Integer> mix = parseMix(options.getOrDefault("mix", "profile:40,me:30,refresh:10,validate:15,admin:5"));
+
+        SpringApplication application = new SpringApplication(AlgoArenaApplication.class);
+        application.setAdditionalProfiles("loadtest");
+
+        try (ConfigurableApplicationContext context = application.run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            List<Credentials> credentials = seedUsers(context, users);
+
+            System.out.printf("Seeded %d users, %d workers, mix %s%s%n", users, concurrency, mix,
+                rate > 0 ? ", " + rate + " req/s" : ", closed loop");
+
+            Map<Endpoint, Stats> stats = new LinkedHashMap<>();
+            for (Endpoint endpoint : Endpoint.values()) {
+                stats.put(endpoint, new Stats());
+            }
+
+            System.out.printf("Warming up for %d s%n", warmupSeconds);
+            run(port, credentials, mix, concurrency, rate, warmupSeconds, stats);
+            stats.values().forEach(s -> {
+                s.latencyMicros.reset();
+                s.errors.reset();
+            });
+
+            System.out.printf("Measuring for %d s%n", durationSeconds);
+            long start = System.nanoTime();
+            run(port, credentials, mix, concurrency, rate, durationSeconds, stats);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            report(stats, seconds);
+        }
+    }
+
+    private static List<Credentials> seedUsers(ConfigurableApplicationContext context, int count) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+
+        List<Credentials> credentials = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = userRepository.save(new User("load-" + i, i % 2 == 0 ? "google" : "github",
+                "Load User " + i, "load" + i + "@example.com", "load" + i, null));
+            credentials.add(new Credentials(jwtUtil.generateAccessToken(user), jwtUtil.generateRefreshToken(user)));
+        }
+        return credentials;
+    }
+
+    private static void run(int port, List<Credentials> credentials, Map<Endpoint, Integer> mix, int concurrency,
+                            double rate, int seconds, Map<Endpoint, Stats> stats) {
+        String baseUrl = "http://localhost:" + port;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        // Each worker sends at rate / concurrency, i.e. one request per intervalNanos
+        long intervalNanos = rate > 0 ? (long) (1_000_000_000L * concurrency / rate) : 0;
+
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        // Closed in reverse order: workers first, waiting for them to finish, then the client's
+        // executor, which must accept tasks for as long as requests are being sent
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+            for (int w = 0; w < concurrency; w++) {
+                int worker = w;
+                workers.execute(() -> {
+                    SplittableRandom random = new SplittableRandom(worker);
+                    long intendedStart = System.nanoTime();
+                    while (System.nanoTime() < deadline) {
+                        Endpoint endpoint = pick(mix, totalWeight, random);
+                        Credentials user = credentials.get(random.nextInt(credentials.size()));
+
+                        if (intervalNanos > 0) {
+                            long wait = intendedStart - System.nanoTime();
+                            if (wait > 0) {
+                                LockSupport.parkNanos(wait);
+                            }
+                        } else {
+                            intendedStart = System.nanoTime();
+                        }
+
+                        Stats endpointStats = stats.get(endpoint);
+                        try {
+                            HttpResponse<Void> response = client.send(request(baseUrl, endpoint, user),
+                                HttpResponse.BodyHandlers.discarding());
+                            int status = response.statusCode();
+                            if (status >= 300 && status != 304) {
+                                endpointStats.errors.increment();
+                            }
+                        } catch (Exception e) {
+                            endpointStats.errors.increment();
+                        }
+                        // Measured from the intended start: queueing behind a slow response counts
+                        endpointStats.latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart));
+
+                        if (intervalNanos > 0) {
+                            intendedStart += intervalNanos;
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private static HttpRequest request(String baseUrl, Endpoint endpoint, Credentials user) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+        return switch (endpoint) {
+            case PROFILE -> builder.uri(URI.create(baseUrl + "/api/protected/profile"))
+                .header("Authorization", "Bearer " + user.accessToken()).GET().build();
+            case ME -> builder.uri(URI.create(baseUrl + "/api/auth/me"))
+                .header("Authorization", "Bearer " + user.accessToken()).GET().build();
+            case REFRESH -> builder.uri(URI.create(baseUrl + "/api/auth/refresh"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"refreshToken\":\"" + user.refreshToken() + "\"}")).build();
+            case VALIDATE -> builder.uri(URI.create(baseUrl + "/api/auth/validate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"token\":\"" + user.accessToken() + "\"}")).build();
+            case ADMIN -> builder.uri(URI.create(baseUrl + "/api/protected/admin/users"))
+                .header("Authorization", "Bearer " + user.accessToken()).GET().build();
+        };
+    }
+
+    private static Endpoint pick(Map<Endpoint, Integer> mix, int totalWeight, SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private static void report(Map<Endpoint, Stats> stats, double seconds) {
+        System.out.printf("%n%-9s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().latencyMicros.getIntervalHistogram();
+            long errors = entry.getValue().errors.sum();
+            total.add(histogram);
+            totalErrors += errors;
+            if (histogram.getTotalCount() > 0) {
+                printRow(entry.getKey().name().toLowerCase(), histogram, errors, seconds);
+            }
+        }
+        printRow("total", total, totalErrors, seconds);
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-9s %9d %7d %9.0f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            name,
+            histogram.getTotalCount(),
+            errors,
+            histogram.getTotalCount() / seconds,
+            histogram.getValueAtPercentile(50) / 1000.0,
+            histogram.getValueAtPercentile(90) / 1000.0,
+            histogram.getValueAtPercentile(99) / 1000.0,
+            histogram.getValueAtPercentile(99.9) / 1000.0,
+            histogram.getMaxValue() / 1000.0);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+        }
+        return options;
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            int weight = Integer.parseInt(nameAndWeight[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(nameAndWeight[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one endpoint with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,75 @@
+package com.algoarena.algoarena;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the controller response records, with the application's
+ * ObjectMapper setup (Boot's builder defaults plus Blackbird) and without Blackbird
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseJsonBenchmark {
+
+    @Param({"profile", "dashboard", "token", "userList"})
+    public String response;
+
+    @Param({"true", "false"})
+    public boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private Object body;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+
+        User user = JwtUtilBenchmark.sampleUser();
+        user.setCreatedAt(LocalDateTime.now().minusDays(30));
+        user.setLastLoginAt(LocalDateTime.now());
+        body = switch (response) {
+            case "profile" -> new ApiResponses.ProfileResponse(true, UserMapper.toProfile(user));
+            case "dashboard" -> UserMapper.toDashboard(user);
+            case "token" -> UserMapper.toTokenResponse("access.token.value", "refresh.token.value", user);
+            case "userList" -> {
+                List<User> users = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    users.add(user);
+                }
+                yield new ApiResponses.UserListResponse(true, UserMapper.toAdminViews(users), user.getName());
+            }
+            default -> throw new IllegalArgumentException("Unknown response " + response);
+        };
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(body);
+    }
+}
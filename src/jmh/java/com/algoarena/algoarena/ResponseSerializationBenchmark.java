@@ -0,0 +1,141 @@
+package com.algoarena.algoarena;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bytes and allocations per response for /profile, /me and /dashboard: the old map bodies
+ * (built the way the controllers used to) against the record DTOs, with and without Blackbird,
+ * and the records in the negotiated binary encodings (CBOR, Smile, protobuf).
+ *
+ * Not a unit test, run it manually:
+ *   ./mvnw -Pjmh test-compile exec:exec \
+ *       -Djmh.main=com.algoarena.algoarena.ResponseSerializationBenchmark -Djmh.args=
+ *
+ * Allocation figures cover building the body and serializing it, measured on the calling thread.
+ */
+public class ResponseSerializationBenchmark {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        User user = new User("bench-user", "google", "Bench User", "bench@example.com", "bench", "https://example.com/a.png");
+        user.setId("65f0c0ffee0000000000beef");
+        user.setCreatedAt(LocalDateTime.now().minusDays(30));
+
+        ObjectMapper plain = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper tuned = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).modulesToInstall(new BlackbirdModule()).build();
+        ObjectMapper smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).modulesToInstall(new BlackbirdModule()).build();
+        ProtobufSchemas schemas = new ProtobufSchemas();
+
+        Map<String, Supplier<Object>> legacy = new LinkedHashMap<>();
+        legacy.put("profile", () -> legacyProfile(user));
+        legacy.put("me", () -> legacyMe(user));
+        legacy.put("dashboard", () -> legacyDashboard(user));
+
+        Map<String, Supplier<Object>> records = new LinkedHashMap<>();
+        records.put("profile", () -> new ApiResponses.ProfileResponse(true, UserMapper.toProfile(user)));
+        records.put("me", () -> new ApiResponses.AuthenticatedUserResponse(true, UserMapper.toProfile(user)));
+        records.put("dashboard", () -> UserMapper.toDashboard(user));
+
+        System.out.printf("%-10s %-7s %-16s %8s %12s %10s%n", "endpoint", "body", "encoding", "bytes", "alloc B/op", "ns/op");
+        for (String endpoint : records.keySet()) {
+            Class<?> type = records.get(endpoint).get().getClass();
+            measure(endpoint, "map", "json", plain.writer(), legacy.get(endpoint));
+            measure(endpoint, "record", "json", plain.writer(), records.get(endpoint));
+            measure(endpoint, "record", "json+blackbird", tuned.writer(), records.get(endpoint));
+            measure(endpoint, "record", "cbor", cbor.writer(), records.get(endpoint));
+            measure(endpoint, "record", "smile", smile.writer(), records.get(endpoint));
+            measure(endpoint, "record", "protobuf", schemas.getMapper().writer(schemas.schemaFor(type)), records.get(endpoint));
+        }
+    }
+
+    private static void measure(String endpoint, String body, String encoding, ObjectWriter writer,
+                                Supplier<Object> response) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += writer.writeValueAsBytes(response.get()).length;
+        }
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int bytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = writer.writeValueAsBytes(response.get()).length;
+            sink += bytes;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%-10s %-7s %-16s %8d %12d %10d%n", endpoint, body, encoding, bytes, allocated / ITERATIONS, elapsed / ITERATIONS);
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    // Bodies as the controllers built them before the record DTOs
+
+    private static Map<String, Object> legacyUser(User user) {
+        Map<String, Object> userInfo = new HashMap<>();
+        userInfo.put("id", user.getId());
+        userInfo.put("name", user.getName());
+        userInfo.put("email", user.getEmail() != null ? user.getEmail() : "");
+        userInfo.put("username", user.getUsername());
+        userInfo.put("provider", user.getProvider());
+        userInfo.put("avatarUrl", user.getAvatarUrl() != null ? user.getAvatarUrl() : "");
+        userInfo.put("createdAt", user.getCreatedAt());
+        userInfo.put("lastLoginAt", user.getLastLoginAt());
+        return userInfo;
+    }
+
+    private static Map<String, Object> legacyProfile(User user) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("user", legacyUser(user));
+        return response;
+    }
+
+    private static Map<String, Object> legacyMe(User user) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("authenticated", true);
+        response.put("user", legacyUser(user));
+        return response;
+    }
+
+    private static Map<String, Object> legacyDashboard(User user) {
+        Map<String, Object> dashboardData = new LinkedHashMap<>();
+        dashboardData.put("welcomeMessage", "Welcome back, " + user.getName() + "!");
+        dashboardData.put("userStats", Map.of(
+            "totalLogins", "N/A",
+            "accountAge", "Member since " + user.getCreatedAt().toLocalDate(),
+            "provider", "Signed in with " + user.getProvider()
+        ));
+        dashboardData.put("quickActions", List.of("View Profile", "Update Settings", "View Activity", "Logout"));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", dashboardData);
+        response.put("user", Map.of(
+            "name", user.getName(),
+            "avatarUrl", user.getAvatarUrl() != null ? user.getAvatarUrl() : ""
+        ));
+        return response;
+    }
+}
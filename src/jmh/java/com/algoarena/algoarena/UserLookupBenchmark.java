@@ -0,0 +1,117 @@
+package com.algoarena.algoarena;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * UserService.findByProviderId (single flight, lookup guard, repository) against the embedded
+ * store (FileUserRepository) and MongoDB, with the same application code on top.
+ *
+ * Boots the application once per store and seeds users; random hits, and misses for unknown
+ * providerIds. The mongo run needs a server at MONGODB_URI (default: database
+ * algoarena-benchmark on localhost, its users are deleted); without one, run only the
+ * embedded store:
+ *   ./mvnw -Pjmh test-compile exec:exec -Djmh.args="UserLookupBenchmark -p store=embedded"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"embedded", "mongo"})
+    public String store;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private Path dataDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        properties.put("warmup.enabled", "false");
+        properties.put("rate-limit.enabled", "false");
+        properties.put("GOOGLE_CLIENT_ID", "benchmark");
+        properties.put("GOOGLE_CLIENT_SECRET", "benchmark");
+        properties.put("GITHUB_CLIENT_ID", "benchmark");
+        properties.put("GITHUB_CLIENT_SECRET", "benchmark");
+        properties.put("JWT_SECRET", "benchmarkSecretThatIsLongEnoughForTheHS256Algorithm");
+
+        SpringApplication application = new SpringApplication(AlgoArenaApplication.class);
+        if ("embedded".equals(store)) {
+            dataDir = Files.createTempDirectory("user-lookup-benchmark");
+            properties.put("embedded.data-dir", dataDir.toString());
+            application.setAdditionalProfiles("embedded");
+        } else {
+            properties.put("spring.data.mongodb.uri", System.getenv().getOrDefault("MONGODB_URI",
+                "mongodb://localhost:27017/algoarena-benchmark"));
+            properties.put("login-events.enabled", "false");
+            properties.put("analytics.checkpoint.enabled", "false");
+            properties.put("admin-stats.reconcile.enabled", "false");
+        }
+        application.setDefaultProperties(properties);
+
+        context = application.run();
+        userService = context.getBean(UserService.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        userRepository.deleteAll();
+        for (int i = 0; i < USERS; i++) {
+            userRepository.save(new User("bench-" + i, i % 2 == 0 ? "google" : "github",
+                "Bench User " + i, "bench" + i + "@example.com", "bench" + i, null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if ("mongo".equals(store)) {
+            context.getBean(UserRepository.class).deleteAll();
+        }
+        context.close();
+        if (dataDir != null) {
+            try (Stream<Path> files = Files.walk(dataDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<User> hit() {
+        return userService.findByProviderId("bench-" + ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    @Benchmark
+    public Optional<User> miss() {
+        return userService.findByProviderId("missing-" + ThreadLocalRandom.current().nextInt(USERS));
+    }
+}
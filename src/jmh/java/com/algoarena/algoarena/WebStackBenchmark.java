@@ -0,0 +1,120 @@
+package com.algoarena.algoarena;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the servlet and reactive stacks under growing numbers of concurrent connections.
+ *
+ * Not a unit test: run it manually against a reachable MongoDB (MONGODB_URI), e.g.
+ *   ./mvnw -Pjmh test-compile exec:exec \
+ *       -Djmh.main=com.algoarena.algoarena.WebStackBenchmark -Djmh.args="reactive 500,2000,8000"
+ *
+ * For every concurrency step it reports how many requests completed, the error count,
+ * live threads and heap growth per in-flight request. Client and server share the JVM,
+ * so the memory figure is an upper bound; compare the two stacks rather than absolute values.
+ */
+public class WebStackBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String stack = args.length > 0 ? args[0] : "servlet";
+        String steps = args.length > 1 ? args[1] : "250,1000,4000";
+
+        SpringApplication application = new SpringApplication(AlgoArenaApplication.class);
+        if ("reactive".equals(stack)) {
+            application.setAdditionalProfiles("reactive");
+        }
+        application.setDefaultProperties(Map.of(
+            "server.port", "0",
+            "logging.level.root", "WARN"
+        ));
+
+        try (ConfigurableApplicationContext context = application.run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            User user = userRepository.findByProviderId("bench-user").orElseGet(() -> userRepository.save(
+                new User("bench-user", "google", "Bench User", "bench@example.com", "bench", null)));
+            String token = context.getBean(JwtUtil.class).generateAccessToken(user);
+
+            System.out.printf("%-9s %8s %10s %8s %8s %10s %14s%n",
+                "stack", "inFlight", "completed", "errors", "threads", "req/s", "heapKB/inflight");
+            for (String step : steps.split(",")) {
+                run(stack, Integer.parseInt(step.trim()), port, token);
+            }
+        }
+    }
+
+    private static void run(String stack, int concurrency, int port, String token) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        System.gc();
+        long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/protected/profile"))
+            .header("Authorization", "Bearer " + token)
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicLong peakHeap = new AtomicLong(baselineHeap);
+        int peakThreads = 0;
+
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> inFlight = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() == 200) {
+                            completed.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    })
+                    .exceptionally(e -> {
+                        errors.incrementAndGet();
+                        return null;
+                    }));
+            }
+
+            CompletableFuture<Void> all = CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]));
+            while (!all.isDone()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                peakThreads = Math.max(peakThreads, threads.getThreadCount());
+                Thread.sleep(5);
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            long heapPerRequest = (peakHeap.get() - baselineHeap) / 1024 / Math.max(1, concurrency);
+            System.out.printf("%-9s %8d %10d %8d %8d %10.0f %14d%n",
+                stack, concurrency, completed.get(), errors.get(), peakThreads,
+                completed.get() / seconds, heapPerRequest);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+//src/main/java/com/algoarena/algoarena/ActivitySketch.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Checkpoint of one node's daily active-user HyperLogLog (id is "<day>|<node>")
+ * Nodes only ever overwrite their own document; readers max-merge all nodes of a day
+ */
+@Document(collection = "analytics_activity")
+public class ActivitySketch {
+    
+    @Id
+    private String id;
+    
+    private String day; // ISO date, UTC
+    
+    private String node;
+    
+    private byte[] registers;
+    
+    private Date updatedAt;
+    
+    // Constructors
+    public ActivitySketch() {}
+    
+    public ActivitySketch(String day, String node, byte[] registers) {
+        this.id = day + "|" + node;
+        this.day = day;
+        this.node = node;
+        this.registers = registers;
+        this.updatedAt = new Date();
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getDay() {
+        return day;
+    }
+    
+    public void setDay(String day) {
+        this.day = day;
+    }
+    
+    public String getNode() {
+        return node;
+    }
+    
+    public void setNode(String node) {
+        this.node = node;
+    }
+    
+    public byte[] getRegisters() {
+        return registers;
+    }
+    
+    public void setRegisters(byte[] registers) {
+        this.registers = registers;
+    }
+    
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
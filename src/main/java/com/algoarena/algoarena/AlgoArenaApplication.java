@@ -4,8 +4,10 @@ package com.algoarena.algoarena;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AlgoArenaApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,153 @@
+//src/main/java/com/algoarena/algoarena/ApiResponses.java
+
+package com.algoarena.algoarena;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Immutable response bodies for the REST controllers
+ * Field order is fixed with @JsonPropertyOrder and timestamps are pre-formatted
+ * ISO-8601 strings, so serialization is a straight walk over known properties
+ */
+public final class ApiResponses {
+
+    private ApiResponses() {}
+
+    // ----- user views -----
+
+    @JsonPropertyOrder({"id", "name", "email", "username", "provider", "avatarUrl"})
+    public record UserSummary(String id, String name, String email, String username,
+                              String provider, String avatarUrl) {}
+
+    @JsonPropertyOrder({"id", "name", "email", "username", "provider", "avatarUrl", "createdAt", "lastLoginAt"})
+    public record UserProfile(String id, String name, String email, String username, String provider,
+                              String avatarUrl, String createdAt, String lastLoginAt) {}
+
+    @JsonPropertyOrder({"id", "name", "username", "email", "lastLoginAt"})
+    public record UpdatedUser(String id, String name, String username, String email, String lastLoginAt) {}
+
+    @JsonPropertyOrder({"id", "providerId", "provider", "name", "email", "username", "avatarUrl", "createdAt", "lastLoginAt"})
+    public record AdminUserView(String id, String providerId, String provider, String name, String email,
+                                String username, String avatarUrl, String createdAt, String lastLoginAt) {}
+
+    @JsonPropertyOrder({"name", "avatarUrl"})
+    public record UserBadge(String name, String avatarUrl) {}
+
+    // ----- auth -----
+
+    /**
+     * Token pair (refreshToken and user are omitted when not issued)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonPropertyOrder({"accessToken", "refreshToken", "tokenType", "expiresIn", "user"})
+    public record TokenResponse(String accessToken, String refreshToken, String tokenType,
+                                long expiresIn, UserSummary user) {}
+
+    @JsonPropertyOrder({"success", "accessToken", "refreshToken", "tokenType", "expiresIn", "user"})
+    public record LoginCallbackResponse(boolean success, String accessToken, String refreshToken,
+                                        String tokenType, long expiresIn, UserSummary user) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonPropertyOrder({"valid", "userId", "message"})
+    public record ValidationResponse(boolean valid, String userId, String message) {}
+
+    @JsonPropertyOrder({"authenticated", "user"})
+    public record AuthenticatedUserResponse(boolean authenticated, UserProfile user) {}
+
+    @JsonPropertyOrder({"authenticated", "message"})
+    public record AuthStatusResponse(boolean authenticated, String message) {}
+
+    // ----- protected -----
+
+    @JsonPropertyOrder({"success", "user"})
+    public record ProfileResponse(boolean success, UserProfile user) {}
+
+    @JsonPropertyOrder({"success", "message", "user"})
+    public record ProfileUpdateResponse(boolean success, String message, UpdatedUser user) {}
+
+    @JsonPropertyOrder({"totalLogins", "accountAge", "provider"})
+    public record UserStats(String totalLogins, String accountAge, String provider) {}
+
+    @JsonPropertyOrder({"welcomeMessage", "userStats", "quickActions"})
+    public record DashboardData(String welcomeMessage, UserStats userStats, List<String> quickActions) {}
+
+    @JsonPropertyOrder({"success", "data", "user"})
+    public record DashboardResponse(boolean success, DashboardData data, UserBadge user) {}
+
+    @JsonPropertyOrder({"success", "users", "requestedBy"})
+    public record UserListResponse(boolean success, List<AdminUserView> users, String requestedBy) {}
+
+    // ----- admin statistics -----
+
+    @JsonPropertyOrder({"provider", "count"})
+    public record ProviderCount(String provider, long count) {}
+
+    @JsonPropertyOrder({"day", "signups"})
+    public record DailySignups(String day, List<ProviderCount> signups) {}
+
+    /**
+     * Active user counts are HyperLogLog estimates (~1% error)
+     */
+    @JsonPropertyOrder({"success", "dailyActiveUsers", "weeklyActiveUsers", "monthlyActiveUsers",
+                        "signupsToday", "signupsByDay", "computedAt"})
+    public record LoginStatsResponse(boolean success, long dailyActiveUsers, long weeklyActiveUsers,
+                                     long monthlyActiveUsers, List<ProviderCount> signupsToday,
+                                     List<DailySignups> signupsByDay, String computedAt) {}
+
+    @JsonPropertyOrder({"period", "count"})
+    public record PeriodCount(String period, long count) {}
+
+    @JsonPropertyOrder({"days", "count"})
+    public record ActiveUsers(int days, long count) {}
+
+    /**
+     * Exact counters (reconciled against the users collection at reconciledAt)
+     */
+    @JsonPropertyOrder({"success", "totalUsers", "usersByProvider", "signupsByMonth", "signupsByDay",
+                        "activeUsers", "reconciledAt"})
+    public record UserStatsResponse(boolean success, long totalUsers, List<ProviderCount> usersByProvider,
+                                    List<PeriodCount> signupsByMonth, List<PeriodCount> signupsByDay,
+                                    List<ActiveUsers> activeUsers, String reconciledAt) {}
+
+    // ----- request tracing (admin) -----
+
+    @JsonPropertyOrder({"name", "startOffsetMicros", "durationMicros"})
+    public record SpanView(String name, long startOffsetMicros, long durationMicros) {}
+
+    @JsonPropertyOrder({"traceId", "method", "path", "status", "startedAt", "durationMicros", "spans", "droppedSpans"})
+    public record TraceView(String traceId, String method, String path, int status, String startedAt,
+                            long durationMicros, List<SpanView> spans, int droppedSpans) {}
+
+    @JsonPropertyOrder({"success", "bufferCapacity", "traces"})
+    public record TracesResponse(boolean success, int bufferCapacity, List<TraceView> traces) {}
+
+    // ----- JFR profiling (admin) -----
+
+    @JsonPropertyOrder({"success", "recording", "name", "startedAt", "durationSeconds", "dumps"})
+    public record JfrStatusResponse(boolean success, boolean recording, String name, String startedAt,
+                                    long durationSeconds, List<String> dumps) {}
+
+    @JsonPropertyOrder({"method", "samples", "percent"})
+    public record HotMethod(String method, long samples, double percent) {}
+
+    /**
+     * bytes is the sampled allocation weight (an estimate of the bytes allocated at the site)
+     */
+    @JsonPropertyOrder({"site", "objectClass", "bytes", "percent"})
+    public record AllocationSite(String site, String objectClass, long bytes, double percent) {}
+
+    @JsonPropertyOrder({"success", "file", "executionSamples", "hotMethods", "allocatedBytes", "allocationSites"})
+    public record JfrSummaryResponse(boolean success, String file, long executionSamples, List<HotMethod> hotMethods,
+                                     long allocatedBytes, List<AllocationSite> allocationSites) {}
+
+    // ----- generic -----
+
+    @JsonPropertyOrder({"success", "message"})
+    public record MessageResponse(boolean success, String message) {}
+
+    @JsonPropertyOrder({"error", "message"})
+    public record ErrorResponse(String error, String message) {}
+}
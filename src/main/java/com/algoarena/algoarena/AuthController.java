@@ -3,17 +3,23 @@
 package com.algoarena.algoarena;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 // import org.springframework.security.core.annotation.AuthenticationPrincipal;
 // import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
 import jakarta.servlet.http.HttpServletRequest;
 
-import java.util.HashMap;
+import com.algoarena.algoarena.ApiResponses.ErrorResponse;
+import com.algoarena.algoarena.ApiResponses.ValidationResponse;
+
 import java.util.Map;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"}) // Allow Next.js frontend
 public class AuthController {
@@ -24,6 +30,18 @@ public class AuthController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private LoginHandoffCookie loginHandoffCookie;
+    
+    @Autowired
+    private AuthorizationCodeStore authorizationCodeStore;
+    
+    @Autowired
+    private LoginEventRecorder loginEventRecorder;
+    
+    @Autowired
+    private LoginAnalytics loginAnalytics;
+    
     /**
      * Generate JWT tokens after OAuth2 login
      * This endpoint is called after successful OAuth2 authentication
@@ -31,13 +49,13 @@ public class AuthController {
     @PostMapping("/generate-token")
     public ResponseEntity<?> generateToken(HttpServletRequest request) {
         try {
-            // Get user from session (set by OAuth2LoginSuccessHandler)
-            User currentUser = (User) request.getSession().getAttribute("currentUser");
+            // Get user from the signed handoff cookie (set by OAuth2LoginSuccessHandler)
+            User currentUser = loginHandoffCookie.resolve(request).orElse(null);
             
             if (currentUser == null) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "No authenticated user found",
-                    "message", "Please login first"
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "No authenticated user found",
+                    "Please login first"
                 ));
             }
             
@@ -45,31 +63,34 @@ public class AuthController {
             String accessToken = jwtUtil.generateAccessToken(currentUser);
             String refreshToken = jwtUtil.generateRefreshToken(currentUser);
             
-            // Prepare response
-            Map<String, Object> response = new HashMap<>();
-            response.put("accessToken", accessToken);
-            response.put("refreshToken", refreshToken);
-            response.put("tokenType", "Bearer");
-            response.put("expiresIn", 86400); // 24 hours in seconds
-            response.put("user", Map.of(
-                "id", currentUser.getId(),
-                "name", currentUser.getName(),
-                "email", currentUser.getEmail() != null ? currentUser.getEmail() : "",
-                "username", currentUser.getUsername(),
-                "provider", currentUser.getProvider(),
-                "avatarUrl", currentUser.getAvatarUrl() != null ? currentUser.getAvatarUrl() : ""
-            ));
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(UserMapper.toTokenResponse(accessToken, refreshToken, currentUser));
             
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(Map.of(
-                "error", "Token generation failed",
-                "message", e.getMessage()
+            return ResponseEntity.internalServerError().body(new ErrorResponse(
+                "Token generation failed",
+                e.getMessage()
             ));
         }
     }
     
+    /**
+     * Exchange the one-time code from the OAuth2 redirect for the token pair
+     * Each code works once and only for a short time
+     */
+    @PostMapping("/exchange")
+    public ResponseEntity<?> exchangeCode(@RequestBody Map<String, String> request) {
+        Optional<AuthorizationCodeStore.IssuedTokens> tokens = authorizationCodeStore.redeem(request.get("code"));
+        
+        if (tokens.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(
+                "Invalid code",
+                "Login code is unknown, expired or already used - please login again"
+            ));
+        }
+        
+        return ResponseEntity.ok(UserMapper.toTokenResponse(tokens.get().accessToken(), tokens.get().refreshToken(), null));
+    }
+    
     /**
      * Test endpoint - Generate JWT for a specific user by email
      * Only for testing purposes
@@ -80,18 +101,18 @@ public class AuthController {
             String email = request.get("email");
             
             if (email == null) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Email required",
-                    "message", "Please provide email in request body"
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "Email required",
+                    "Please provide email in request body"
                 ));
             }
             
             Optional<User> userOpt = userService.findByEmail(email);
             
             if (userOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "User not found",
-                    "message", "User with email " + email + " not found"
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "User not found",
+                    "User with email " + email + " not found"
                 ));
             }
             
@@ -101,27 +122,12 @@ public class AuthController {
             String accessToken = jwtUtil.generateAccessToken(user);
             String refreshToken = jwtUtil.generateRefreshToken(user);
             
-            // Prepare response
-            Map<String, Object> response = new HashMap<>();
-            response.put("accessToken", accessToken);
-            response.put("refreshToken", refreshToken);
-            response.put("tokenType", "Bearer");
-            response.put("expiresIn", 86400);
-            response.put("user", Map.of(
-                "id", user.getId(),
-                "name", user.getName(),
-                "email", user.getEmail() != null ? user.getEmail() : "",
-                "username", user.getUsername(),
-                "provider", user.getProvider(),
-                "avatarUrl", user.getAvatarUrl() != null ? user.getAvatarUrl() : ""
-            ));
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(UserMapper.toTokenResponse(accessToken, refreshToken, user));
             
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(Map.of(
-                "error", "Token generation failed",
-                "message", e.getMessage()
+            return ResponseEntity.internalServerError().body(new ErrorResponse(
+                "Token generation failed",
+                e.getMessage()
             ));
         }
     }
@@ -131,43 +137,52 @@ public class AuthController {
      */
     @PostMapping("/refresh")
     public ResponseEntity<?> refreshToken(@RequestBody Map<String, String> request) {
+        long startNanos = System.nanoTime();
         try {
             String refreshToken = request.get("refreshToken");
             
             if (refreshToken == null || !jwtUtil.validateToken(refreshToken)) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Invalid refresh token",
-                    "message", "Please login again"
+                loginEventRecorder.recordFailure(LoginEvent.Type.REFRESH, null, null, startNanos, "invalid_token");
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "Invalid refresh token",
+                    "Please login again"
                 ));
             }
             
-            // Extract user ID from refresh token
-            String userId = jwtUtil.extractUserId(refreshToken);
-            Optional<User> userOpt = userService.findByProviderId(userId);
+            // Extract provider ID (token subject) from refresh token
+            String providerId = jwtUtil.extractUsername(refreshToken);
+            Optional<User> userOpt = userService.findByProviderId(providerId);
             
             if (userOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "User not found",
-                    "message", "Please login again"
+                loginEventRecorder.recordFailure(LoginEvent.Type.REFRESH, null, null, startNanos, "user_not_found");
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "User not found",
+                    "Please login again"
                 ));
             }
             
             User user = userOpt.get();
             
+            if (jwtUtil.isRevoked(refreshToken, user.getTokensRevokedAt())) {
+                loginEventRecorder.recordFailure(LoginEvent.Type.REFRESH, user.getId(), user.getProvider(), startNanos, "revoked");
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "Invalid refresh token",
+                    "Please login again"
+                ));
+            }
+            
             // Generate new access token
             String newAccessToken = jwtUtil.generateAccessToken(user);
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("accessToken", newAccessToken);
-            response.put("tokenType", "Bearer");
-            response.put("expiresIn", 86400);
-            
-            return ResponseEntity.ok(response);
+            loginEventRecorder.recordSuccess(LoginEvent.Type.REFRESH, user, startNanos);
+            loginAnalytics.recordActivity(user.getId());
+            return ResponseEntity.ok(UserMapper.toTokenResponse(newAccessToken, null, null));
             
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of(
-                "error", "Token refresh failed",
-                "message", e.getMessage()
+            loginEventRecorder.recordFailure(LoginEvent.Type.REFRESH, null, null, startNanos, e.getClass().getSimpleName());
+            return ResponseEntity.badRequest().body(new ErrorResponse(
+                "Token refresh failed",
+                e.getMessage()
             ));
         }
     }
@@ -181,7 +196,7 @@ public class AuthController {
             String token = request.get("token");
             
             if (token == null) {
-                return ResponseEntity.badRequest().body(Map.of("valid", false, "message", "No token provided"));
+                return ResponseEntity.badRequest().body(new ValidationResponse(false, null, "No token provided"));
             }
             
             // Remove "Bearer " prefix if present
@@ -193,23 +208,13 @@ public class AuthController {
             
             if (isValid) {
                 String userId = jwtUtil.extractUserId(token);
-                return ResponseEntity.ok(Map.of(
-                    "valid", true,
-                    "userId", userId,
-                    "message", "Token is valid"
-                ));
+                return ResponseEntity.ok(new ValidationResponse(true, userId, "Token is valid"));
             } else {
-                return ResponseEntity.ok(Map.of(
-                    "valid", false,
-                    "message", "Token is invalid or expired"
-                ));
+                return ResponseEntity.ok(new ValidationResponse(false, null, "Token is invalid or expired"));
             }
             
         } catch (Exception e) {
-            return ResponseEntity.ok(Map.of(
-                "valid", false,
-                "message", "Token validation failed: " + e.getMessage()
-            ));
+            return ResponseEntity.ok(new ValidationResponse(false, null, "Token validation failed: " + e.getMessage()));
         }
     }
     
@@ -217,53 +222,68 @@ public class AuthController {
      * Get current user info from JWT token
      */
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getCurrentUser(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Missing or invalid Authorization header",
-                    "message", "Please provide a valid Bearer token"
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "Missing or invalid Authorization header",
+                    "Please provide a valid Bearer token"
                 ));
             }
             
             String token = authHeader.substring(7);
             
             if (!jwtUtil.validateToken(token)) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Invalid token",
-                    "message", "Token is invalid or expired"
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "Invalid token",
+                    "Token is invalid or expired"
                 ));
             }
             
             String providerId = jwtUtil.extractUsername(token);
+            
+            // Conditional GET: compare against the stored version without loading the whole user
+            if (ifNoneMatch != null) {
+                Optional<String> etag = userService.findProfileVersion(providerId)
+                    .filter(version -> !jwtUtil.isRevoked(token, version.getTokensRevokedAt()))
+                    .map(version -> ProfileETag.of(version, accept));
+                if (etag.isPresent() && ProfileETag.matches(ifNoneMatch, etag.get())) {
+                    return ProfileETag.notModified(etag.get());
+                }
+            }
+            
             Optional<User> userOpt = userService.findByProviderId(providerId);
             
             if (userOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "User not found",
-                    "message", "User associated with token not found"
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "User not found",
+                    "User associated with token not found"
                 ));
             }
             
             User user = userOpt.get();
             
-            Map<String, Object> userInfo = Map.of(
-                "id", user.getId(),
-                "name", user.getName(),
-                "email", user.getEmail() != null ? user.getEmail() : "",
-                "username", user.getUsername(),
-                "provider", user.getProvider(),
-                "avatarUrl", user.getAvatarUrl() != null ? user.getAvatarUrl() : "",
-                "createdAt", user.getCreatedAt(),
-                "lastLoginAt", user.getLastLoginAt()
-            );
-            
-            return ResponseEntity.ok(userInfo);
+            if (jwtUtil.isRevoked(token, user.getTokensRevokedAt())) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "Invalid token",
+                    "Token has been revoked"
+                ));
+            }
+
+            return ProfileETag.ok(ProfileETag.of(user, accept)).body(UserMapper.toProfile(user));
             
+        } catch (UserLookupGuard.LookupUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(
+                "Service unavailable",
+                "User store is temporarily unavailable, please retry"
+            ));
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(Map.of(
-                "error", "Failed to get user info",
-                "message", e.getMessage()
+            return ResponseEntity.internalServerError().body(new ErrorResponse(
+                "Failed to get user info",
+                e.getMessage()
             ));
         }
     }
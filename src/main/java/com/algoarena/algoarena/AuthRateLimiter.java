@@ -0,0 +1,224 @@
+//src/main/java/com/algoarena/algoarena/AuthRateLimiter.java
+
+package com.algoarena.algoarena;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket limiter for the public /api/auth endpoints
+ *
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time" (GCRA,
+ * equivalent to a token bucket), so acquiring is one CAS and never blocks.
+ * Buckets live in a ConcurrentHashMap, whose per-bin locking stripes key creation,
+ * and idle buckets are swept periodically. Beyond rate-limit.max-keys buckets, new keys
+ * are let through unlimited (counted, and logged at most once a minute) rather than
+ * turning every new caller away.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthRateLimiter.class);
+
+    private static final long OVERFLOW_WARN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Outcome of a check; retryAfterSeconds is only meaningful when rejected
+     */
+    public record Decision(boolean allowed, long retryAfterSeconds) {
+        static final Decision ALLOWED = new Decision(true, 0);
+    }
+
+    /**
+     * A policy compiled into nanosecond GCRA parameters plus its metrics
+     */
+    static final class Route {
+        final String name;
+        final long emissionIntervalNanos;
+        final long burstToleranceNanos;
+        final boolean perSubject;
+        final Counter rejectedByIp;
+        final Counter rejectedBySubject;
+
+        Route(String name, RateLimitProperties.Policy policy, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / policy.getRefillPerSecond());
+            this.burstToleranceNanos = emissionIntervalNanos * (Math.max(1, policy.getCapacity()) - 1);
+            this.perSubject = policy.isPerSubject();
+            this.rejectedByIp = rejectedCounter(meterRegistry, name, "ip");
+            this.rejectedBySubject = rejectedCounter(meterRegistry, name, "subject");
+        }
+
+        private static Counter rejectedCounter(MeterRegistry meterRegistry, String route, String key) {
+            return Counter.builder("auth.ratelimit.rejected")
+                .description("Requests rejected with 429 by the auth rate limiter")
+                .tag("route", route)
+                .tag("key", key)
+                .register(meterRegistry);
+        }
+    }
+
+    static final class Bucket {
+        private final AtomicLong theoreticalArrivalNanos;
+
+        Bucket(long now) {
+            this.theoreticalArrivalNanos = new AtomicLong(now);
+        }
+
+        /**
+         * Returns 0 if a token was taken, otherwise the nanos until one is available
+         */
+        long tryAcquire(long now, Route route) {
+            while (true) {
+                long tat = theoreticalArrivalNanos.get();
+                long start = Math.max(tat, now);
+                long waitNanos = start - now - route.burstToleranceNanos;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (theoreticalArrivalNanos.compareAndSet(tat, start + route.emissionIntervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isIdle(long now, long idleNanos) {
+            return now - theoreticalArrivalNanos.get() > idleNanos;
+        }
+    }
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Exact path -> compiled policy, read-only after startup
+    private Map<String, Route> routes = Map.of();
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private Counter overflow;
+
+    private final AtomicLong lastOverflowWarnNanos = new AtomicLong(System.nanoTime() - OVERFLOW_WARN_INTERVAL_NANOS);
+
+    @PostConstruct
+    void compilePolicies() {
+        Map<String, Route> compiled = new HashMap<>();
+        properties.getPolicies().forEach((name, policy) -> {
+            if (policy.getPath() != null && policy.getRefillPerSecond() > 0) {
+                compiled.put(policy.getPath(), new Route(name, policy, meterRegistry));
+            }
+        });
+        routes = Map.copyOf(compiled);
+        overflow = Counter.builder("auth.ratelimit.overflow")
+            .description("Requests let through because the limiter was tracking too many keys")
+            .register(meterRegistry);
+        meterRegistry.gauge("auth.ratelimit.buckets", buckets, Map::size);
+    }
+
+    /**
+     * Is this path rate limited at all (cheap, O(1))
+     */
+    public boolean isLimited(String path) {
+        return properties.isEnabled() && routes.containsKey(path);
+    }
+
+    /**
+     * Take one token from the client-IP bucket and, if present, the credential bucket
+     */
+    public Decision check(String path, String clientIp, String subjectKey) {
+        return check(path, clientIp, subjectKey, System.nanoTime());
+    }
+
+    Decision check(String path, String clientIp, String subjectKey, long now) {
+        Route route = routes.get(path);
+        if (route == null || !properties.isEnabled()) {
+            return Decision.ALLOWED;
+        }
+
+        long waitNanos = acquire(route.name + "|ip|" + clientIp, now, route);
+        if (waitNanos > 0) {
+            route.rejectedByIp.increment();
+            return rejected(waitNanos);
+        }
+        if (route.perSubject && subjectKey != null) {
+            waitNanos = acquire(route.name + "|sub|" + subjectKey, now, route);
+            if (waitNanos > 0) {
+                route.rejectedBySubject.increment();
+                return rejected(waitNanos);
+            }
+        }
+        return Decision.ALLOWED;
+    }
+
+    private long acquire(String key, long now, Route route) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxKeys()) {
+                overflow.increment();
+                warnOverflow(now, route);
+                return 0;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+        }
+        return bucket.tryAcquire(now, route);
+    }
+
+    private void warnOverflow(long now, Route route) {
+        long last = lastOverflowWarnNanos.get();
+        if (now - last >= OVERFLOW_WARN_INTERVAL_NANOS && lastOverflowWarnNanos.compareAndSet(last, now)) {
+            log.atWarn()
+                .addKeyValue("route", route.name)
+                .addKeyValue("maxKeys", properties.getMaxKeys())
+                .addKeyValue("overflowedTotal", (long) overflow.count())
+                .log("Rate limiter is tracking too many keys, new callers are not limited");
+        }
+    }
+
+    /**
+     * Bucket key for a bearer token: 128 bits of its SHA-256, so a forged token cannot be
+     * crafted to share a bucket with a real one
+     */
+    static String credentialKey(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // required of every JRE
+        }
+    }
+
+    private static Decision rejected(long waitNanos) {
+        // Rounded up: retrying after a truncated wait would be rejected again
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return new Decision(false, Math.max(1, (waitNanos + second - 1) / second));
+    }
+
+    /**
+     * Drop buckets that have been idle (and therefore full) for a while
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.SECONDS.toNanos(properties.getIdleEvictionSeconds());
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+}
@@ -0,0 +1,48 @@
+//src/main/java/com/algoarena/algoarena/AuthorizationCodeStore.java
+
+package com.algoarena.algoarena;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Short-lived, single-use codes that the frontend exchanges for the JWT pair
+ * after OAuth2 login, so tokens never travel in redirect URLs
+ */
+public interface AuthorizationCodeStore {
+
+    /**
+     * Token pair waiting to be picked up by the frontend
+     */
+    record IssuedTokens(String accessToken, String refreshToken) {}
+
+    /**
+     * Thrown by issue() when no more codes can be held; the login has to be retried later
+     */
+    class CapacityExceededException extends RuntimeException {
+        public CapacityExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Store the token pair and return a fresh one-time code for it
+     * CapacityExceededException if the store is full of unexpired codes
+     */
+    String issue(IssuedTokens tokens);
+
+    /**
+     * Atomically consume a code; empty if unknown, already used or expired
+     */
+    Optional<IssuedTokens> redeem(String code);
+
+    /**
+     * 192 random bits, URL-safe (32 characters)
+     */
+    static String newCode(SecureRandom random) {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
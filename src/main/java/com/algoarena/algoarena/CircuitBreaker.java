@@ -0,0 +1,149 @@
+//src/main/java/com/algoarena/algoarena/CircuitBreaker.java
+
+package com.algoarena.algoarena;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Count-based circuit breaker over the outcomes of the last windowSize calls
+ *
+ * CLOSED: every call is allowed; once at least minimumCalls are in the window and the share of
+ * failed or of slow calls reaches its threshold, the breaker opens. OPEN: calls are rejected
+ * until openDuration has passed, then HALF_OPEN lets halfOpenCalls trial calls through. Any
+ * failed or slow trial reopens it, all of them succeeding closes it with an empty window.
+ *
+ * Every tryAcquire() that returned true must be followed by exactly one onResult(). The
+ * critical sections are a handful of field updates, so plain synchronization is enough.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final Consumer<State> onTransition;
+
+    // Ring of the last outcomes while CLOSED
+    private final byte[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private volatile State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenStarted;
+    private int halfOpenSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, double slowCallRateThreshold,
+                          long slowCallMs, long openDurationMs, int halfOpenCalls, Consumer<State> onTransition) {
+        this.window = new byte[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.onTransition = onTransition;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Whether a call may go ahead now
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openNanos) {
+                    return false;
+                }
+                halfOpenStarted = 0;
+                halfOpenSucceeded = 0;
+                transition(State.HALF_OPEN);
+                // fall through: this caller is the first trial call
+            default:
+                if (halfOpenStarted >= halfOpenCalls) {
+                    return false;
+                }
+                halfOpenStarted++;
+                return true;
+        }
+    }
+
+    /**
+     * Outcome of an acquired call; a call is slow when it took at least slowCallMs
+     */
+    public synchronized void onResult(long durationNanos, boolean failed) {
+        byte outcome = failed ? FAILURE : durationNanos >= slowCallNanos ? SLOW : SUCCESS;
+
+        if (state == State.HALF_OPEN) {
+            if (outcome != SUCCESS) {
+                open();
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                resetWindow();
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return; // a call that started before the breaker opened
+        }
+
+        if (recorded == window.length) {
+            byte evicted = window[next];
+            if (evicted == FAILURE) {
+                failures--;
+            } else if (evicted == SLOW) {
+                slowCalls--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        if (outcome == FAILURE) {
+            failures++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+
+        if (recorded >= minimumCalls
+                && (failures >= failureRateThreshold * recorded || slowCalls >= slowCallRateThreshold * recorded)) {
+            open();
+        }
+    }
+
+    private void open() {
+        openedAtNanos = System.nanoTime();
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transition(State to) {
+        if (state != to) {
+            state = to;
+            onTransition.accept(to);
+        }
+    }
+}
@@ -9,54 +9,73 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 public class CorsConfig {
 
+    // Allow these origins (your Next.js development and production URLs)
+    static final List<String> ALLOWED_ORIGIN_PATTERNS = List.of(
+        "http://localhost:3000",    // Next.js dev server
+        "http://localhost:3001",    // Alternative Next.js port
+        "https://*.vercel.app",     // Vercel deployments
+        "https://*.netlify.app",    // Netlify deployments
+        System.getenv("FRONTEND_URL") != null ? System.getenv("FRONTEND_URL") : "http://localhost:3000"
+    );
+    
+    // Allow these HTTP methods
+    static final List<String> ALLOWED_METHODS = List.of(
+        "GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"
+    );
+    
+    // Allow these headers
+    static final List<String> ALLOWED_HEADERS = List.of(
+        "Authorization",
+        "Content-Type",
+        "X-Requested-With",
+        "Accept",
+        "Origin",
+        "Access-Control-Request-Method",
+        "Access-Control-Request-Headers",
+        "If-None-Match",            // Conditional GETs on the profile endpoints
+        "X-Request-Id"              // Client-chosen trace id (RequestTracing)
+    );
+    
+    // Cache preflight response for 1 hour
+    static final long MAX_AGE_SECONDS = 3600L;
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
-        CorsConfiguration configuration = new CorsConfiguration();
-        
-        // Allow these origins (your Next.js development and production URLs)
-        configuration.setAllowedOriginPatterns(Arrays.asList(
-            "http://localhost:3000",    // Next.js dev server
-            "http://localhost:3001",    // Alternative Next.js port
-            "https://*.vercel.app",     // Vercel deployments
-            "https://*.netlify.app",    // Netlify deployments
-            System.getenv("FRONTEND_URL") != null ? System.getenv("FRONTEND_URL") : "http://localhost:3000"
-        ));
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/api/**", apiCorsConfiguration());
         
-        // Allow these HTTP methods
-        configuration.setAllowedMethods(Arrays.asList(
-            "GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"
-        ));
+        return source;
+    }
+
+    /**
+     * CORS rules for /api/** (shared by the servlet and reactive security configs)
+     * Preflights for these paths are normally answered earlier by CorsPreflightFilter
+     */
+    static CorsConfiguration apiCorsConfiguration() {
+        CorsConfiguration configuration = new CorsConfiguration();
         
-        // Allow these headers
-        configuration.setAllowedHeaders(Arrays.asList(
-            "Authorization",
-            "Content-Type",
-            "X-Requested-With",
-            "Accept",
-            "Origin",
-            "Access-Control-Request-Method",
-            "Access-Control-Request-Headers"
-        ));
+        configuration.setAllowedOriginPatterns(ALLOWED_ORIGIN_PATTERNS);
+        configuration.setAllowedMethods(ALLOWED_METHODS);
+        configuration.setAllowedHeaders(ALLOWED_HEADERS);
         
         // Expose these headers to the frontend
         configuration.setExposedHeaders(Arrays.asList(
             "Access-Control-Allow-Origin",
-            "Access-Control-Allow-Credentials"
+            "Access-Control-Allow-Credentials",
+            "ETag",
+            "X-Request-Id"
         ));
         
         // Allow credentials (cookies, authorization headers)
         configuration.setAllowCredentials(true);
         
-        // Cache preflight response for 1 hour
-        configuration.setMaxAge(3600L);
+        configuration.setMaxAge(MAX_AGE_SECONDS);
         
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/api/**", configuration);
-        
-        return source;
+        return configuration;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+//src/main/java/com/algoarena/algoarena/CorsPreflightFilter.java
+
+package com.algoarena.algoarena;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Answers CORS preflight (OPTIONS) requests for /api/** before anything else runs
+ * Same rules as CorsConfig, but origins are precompiled into an exact set plus
+ * regexes, decisions are memoized per origin and all header values are pre-built,
+ * so a preflight never enters the Spring Security chain or the JWT filter
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorsPreflightFilter extends OncePerRequestFilter {
+
+    // Memoized origin decisions are capped so random Origin headers cannot grow the map
+    private static final int MAX_CACHED_ORIGINS = 1024;
+
+    private static final String ALLOWED_METHODS_VALUE = String.join(",", CorsConfig.ALLOWED_METHODS);
+    private static final String MAX_AGE_VALUE = Long.toString(CorsConfig.MAX_AGE_SECONDS);
+    private static final String VARY_VALUE = "Origin, Access-Control-Request-Method, Access-Control-Request-Headers";
+
+    private final Set<String> exactOrigins = new HashSet<>();
+    private final List<Pattern> originPatterns = new ArrayList<>();
+    private final Set<String> allowedMethods = Set.copyOf(CorsConfig.ALLOWED_METHODS);
+    private final Set<String> allowedHeaders = new HashSet<>();
+
+    private final ConcurrentHashMap<String, Boolean> originDecisions = new ConcurrentHashMap<>();
+
+    public CorsPreflightFilter() {
+        for (String origin : CorsConfig.ALLOWED_ORIGIN_PATTERNS) {
+            if (origin.contains("*")) {
+                // Same semantics as Spring's origin patterns: '*' matches any characters
+                originPatterns.add(Pattern.compile(
+                    "\\Q" + origin.replace("*", "\\E.*\\Q") + "\\E"));
+            } else {
+                exactOrigins.add(stripTrailingSlash(origin));
+            }
+        }
+        for (String header : CorsConfig.ALLOWED_HEADERS) {
+            allowedHeaders.add(header.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String origin = request.getHeader("Origin");
+        String requestMethod = request.getHeader("Access-Control-Request-Method");
+        String requestHeaders = request.getHeader("Access-Control-Request-Headers");
+
+        response.setHeader("Vary", VARY_VALUE);
+
+        if (!isOriginAllowed(origin) || !allowedMethods.contains(requestMethod) || !areHeadersAllowed(requestHeaders)) {
+            // Same answer Spring's DefaultCorsProcessor gives
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            response.getWriter().write("Invalid CORS request");
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setHeader("Access-Control-Allow-Origin", origin);
+        response.setHeader("Access-Control-Allow-Credentials", "true");
+        response.setHeader("Access-Control-Allow-Methods", ALLOWED_METHODS_VALUE);
+        if (requestHeaders != null && !requestHeaders.isBlank()) {
+            // Every requested header was checked above, echo them back like Spring does
+            response.setHeader("Access-Control-Allow-Headers", requestHeaders);
+        }
+        response.setHeader("Access-Control-Max-Age", MAX_AGE_VALUE);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        // Only real preflights for the CORS-enabled API paths
+        return !"OPTIONS".equals(request.getMethod())
+            || request.getHeader("Origin") == null
+            || request.getHeader("Access-Control-Request-Method") == null
+            || !request.getRequestURI().startsWith("/api/");
+    }
+
+    private boolean isOriginAllowed(String origin) {
+        Boolean cached = originDecisions.get(origin);
+        if (cached != null) {
+            return cached;
+        }
+        String normalized = stripTrailingSlash(origin);
+        boolean allowed = exactOrigins.contains(normalized);
+        for (int i = 0; !allowed && i < originPatterns.size(); i++) {
+            allowed = originPatterns.get(i).matcher(normalized).matches();
+        }
+        if (originDecisions.size() < MAX_CACHED_ORIGINS) {
+            originDecisions.put(origin, allowed);
+        }
+        return allowed;
+    }
+
+    private boolean areHeadersAllowed(String requestHeaders) {
+        if (requestHeaders == null || requestHeaders.isBlank()) {
+            return true;
+        }
+        for (String header : requestHeaders.split(",")) {
+            String name = header.trim();
+            if (!name.isEmpty() && !allowedHeaders.contains(name.toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String stripTrailingSlash(String origin) {
+        return origin.endsWith("/") ? origin.substring(0, origin.length() - 1) : origin;
+    }
+}
@@ -0,0 +1,184 @@
+//src/main/java/com/algoarena/algoarena/DependencyProbes.java
+
+package com.algoarena.algoarena;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Readiness health indicator ("dependencyProbes") backed by a cached snapshot
+ *
+ * A background thread pings MongoDB every probes.refresh-interval-ms and checks the unique
+ * providerId index on users every probes.index-check-interval-ms; health() only reads the
+ * last snapshot, so probes can be hit as often as the orchestrator likes without any database
+ * traffic. Readiness is DOWN when the last ping failed, warm-up has not finished (JitWarmup),
+ * the index is missing (only with probes.require-indexes) or the snapshot is older than
+ * probes.max-staleness-ms, which bounds how long a hanging ping can hide an outage.
+ *
+ * With probes.mongo.enabled=false (the "embedded" profile, FileUserRepository) nothing is
+ * pinged and readiness only tracks warm-up.
+ *
+ * Liveness deliberately ignores dependencies: restarting the process does not fix MongoDB.
+ * Boot's own mongo health indicator is disabled (management.health.mongo.enabled), it would
+ * run a command on every health request.
+ */
+@Component
+public class DependencyProbes implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyProbes.class);
+
+    /**
+     * One refresh; indexesPresent is null until the first index check succeeded
+     */
+    record Snapshot(boolean mongoUp, long pingMicros, String mongoError, Boolean indexesPresent,
+                    String warmup, long refreshedAtNanos, Instant refreshedAt) {}
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JitWarmup jitWarmup;
+
+    @Value("${probes.refresh-interval-ms:1000}")
+    private long refreshIntervalMs;
+
+    @Value("${probes.index-check-interval-ms:60000}")
+    private long indexCheckIntervalMs;
+
+    @Value("${probes.max-staleness-ms:5000}")
+    private long maxStalenessMs;
+
+    @Value("${probes.require-indexes:false}")
+    private boolean requireIndexes;
+
+    @Value("${probes.mongo.enabled:true}")
+    private boolean mongoEnabled;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean running;
+    private Thread refresher;
+
+    // Only touched by the refresher thread
+    private Boolean indexesPresent;
+    private boolean indexCheckDue = true;
+    private long nextIndexCheckNanos;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        refresher = new Thread(this::refreshLoop, "dependency-probes");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (refresher != null) {
+            refresher.interrupt();
+        }
+    }
+
+    @Override
+    public Health health() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Health.down().withDetail("reason", "no probe has completed yet").build();
+        }
+
+        long ageMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - current.refreshedAtNanos());
+        Health.Builder builder;
+        if (ageMs > maxStalenessMs) {
+            builder = Health.down().withDetail("reason", "probe snapshot is stale");
+        } else if (!current.mongoUp()) {
+            builder = Health.down().withDetail("reason", "mongo ping failed");
+        } else if ("pending".equals(current.warmup())) {
+            builder = Health.down().withDetail("reason", "warm-up in progress");
+        } else if (requireIndexes && mongoEnabled && !Boolean.TRUE.equals(current.indexesPresent())) {
+            builder = Health.down().withDetail("reason", "required indexes missing");
+        } else {
+            builder = Health.up();
+        }
+
+        builder.withDetail("mongo", !mongoEnabled ? "disabled" : current.mongoUp() ? "UP" : "DOWN")
+            .withDetail("pingMicros", current.pingMicros())
+            .withDetail("indexes", current.indexesPresent() == null ? "unknown" : current.indexesPresent() ? "present" : "missing")
+            .withDetail("warmup", current.warmup())
+            .withDetail("refreshedAt", current.refreshedAt().toString())
+            .withDetail("ageMs", ageMs);
+        if (current.mongoError() != null) {
+            builder.withDetail("mongoError", current.mongoError());
+        }
+        return builder.build();
+    }
+
+    private void refreshLoop() {
+        while (running) {
+            long start = System.nanoTime();
+            try {
+                snapshot = refresh();
+            } catch (RuntimeException e) {
+                log.warn("Dependency probe refresh failed: {}", e.getMessage());
+            }
+            long sleepNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs) - (System.nanoTime() - start);
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(sleepNanos);
+            }
+        }
+    }
+
+    private Snapshot refresh() {
+        if (!mongoEnabled) {
+            return new Snapshot(true, 0, null, null, jitWarmup.state(), System.nanoTime(), Instant.now());
+        }
+
+        boolean mongoUp;
+        String mongoError = null;
+        long start = System.nanoTime();
+        try {
+            mongoTemplate.executeCommand(new Document("ping", 1));
+            mongoUp = true;
+        } catch (RuntimeException e) {
+            mongoUp = false;
+            mongoError = e.getClass().getSimpleName();
+            // A failed ping leaves the index state as last seen, it is rechecked once Mongo is back
+            indexCheckDue = true;
+        }
+        long pingMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        if (mongoUp && (indexCheckDue || System.nanoTime() - nextIndexCheckNanos >= 0)) {
+            try {
+                indexesPresent = hasUniqueProviderIdIndex();
+                indexCheckDue = false;
+                nextIndexCheckNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(indexCheckIntervalMs);
+            } catch (RuntimeException e) {
+                log.debug("Index check failed: {}", e.getMessage());
+            }
+        }
+
+        return new Snapshot(mongoUp, pingMicros, mongoError, indexesPresent, jitWarmup.state(),
+            System.nanoTime(), Instant.now());
+    }
+
+    private boolean hasUniqueProviderIdIndex() {
+        List<IndexInfo> indexes = mongoTemplate.indexOps(User.class).getIndexInfo();
+        return indexes.stream().anyMatch(index -> index.isUnique()
+            && index.getIndexFields().size() == 1
+            && "providerId".equals(index.getIndexFields().get(0).getKey()));
+    }
+}
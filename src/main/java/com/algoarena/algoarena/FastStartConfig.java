@@ -0,0 +1,74 @@
+//src/main/java/com/algoarena/algoarena/FastStartConfig.java
+
+package com.algoarena.algoarena;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import jakarta.servlet.Filter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.stereotype.Controller;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "fast-start" profile: lazy initialization (spring.main.lazy-initialization) for everything
+ * that is not on the request hot path, such as the OAuth2 client and authorized-client beans,
+ * actuator endpoints, schema generation and the binary codecs
+ *
+ * Kept eager, so the first requests after a scale-out don't pay for bean creation: the
+ * servlet filters and security chain, controllers, JwtUtil, UserService, the repositories,
+ * the Mongo client and template, the ObjectMapper and DependencyProbes (its snapshot has to
+ * be warm before the first readiness probe). Beans with @Scheduled methods stay eager as well,
+ * their schedules are only registered when the bean is created.
+ *
+ * Used together with the AOT-processed context and the CDS archive built into the image
+ * (see the Dockerfile and scripts/measure-startup.sh).
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    private static final List<Class<?>> HOT_PATH_TYPES = List.of(
+        Filter.class,
+        SecurityFilterChain.class,
+        JwtUtil.class,
+        UserService.class,
+        UserRepository.class,
+        ReactiveUserRepository.class,
+        MongoClient.class,
+        MongoTemplate.class,
+        ObjectMapper.class,
+        DependencyProbes.class
+    );
+
+    @Bean
+    static LazyInitializationExcludeFilter hotPathEagerInitialization() {
+        return (beanName, beanDefinition, beanType) -> {
+            if (beanType == null) {
+                return false;
+            }
+            for (Class<?> hotType : HOT_PATH_TYPES) {
+                if (hotType.isAssignableFrom(beanType)) {
+                    return true;
+                }
+            }
+            return AnnotatedElementUtils.hasAnnotation(beanType, Controller.class) || hasScheduledMethods(beanType);
+        };
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        Map<Method, Scheduled> scheduled = MethodIntrospector.selectMethods(beanType,
+            (MethodIntrospector.MetadataLookup<Scheduled>) method -> AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class));
+        return !scheduled.isEmpty();
+    }
+}
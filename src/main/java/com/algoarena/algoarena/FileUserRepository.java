@@ -0,0 +1,418 @@
+//src/main/java/com/algoarena/algoarena/FileUserRepository.java
+
+package com.algoarena.algoarena;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * UserRepository on a local append-only log (UserLog) for the "embedded" profile
+ *
+ * Single-node deployments and benchmarks without MongoDB: users live in
+ * embedded.data-dir/users.log, indexed in memory by id, providerId (unique, like the index on
+ * the collection), email and username. Takes precedence over the MongoDB repository, which is
+ * still created but never used; application-embedded.properties turns off the other MongoDB
+ * users (login events, analytics checkpoints, stats reconciliation, change stream, probes).
+ *
+ * Writes reach the page cache immediately and disk every embedded.flush-interval-ms, or on
+ * every write with embedded.sync-writes. The log is compacted once dead records exceed
+ * embedded.compaction.garbage-ratio of it. Ids are ObjectId hex strings, as in MongoDB. The
+ * query classes of UserRepositoryCustom all read the one copy; sorted queries and
+ * query-by-example are not supported.
+ */
+@Repository
+@Primary
+@Profile("embedded")
+public class FileUserRepository implements UserRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(FileUserRepository.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${embedded.data-dir:data}")
+    private String dataDir;
+
+    @Value("${embedded.initial-size-mb:16}")
+    private int initialSizeMb;
+
+    @Value("${embedded.sync-writes:false}")
+    private boolean syncWrites;
+
+    @Value("${embedded.compaction.garbage-ratio:0.5}")
+    private double compactionGarbageRatio;
+
+    @Value("${embedded.compaction.min-bytes:1048576}")
+    private long compactionMinBytes;
+
+    private UserLog userLog;
+    private Counter compactions;
+
+    private record VersionView(String getId, Long getProfileVersion, LocalDateTime getTokensRevokedAt)
+        implements ProfileVersionView {}
+
+    @PostConstruct
+    void open() throws IOException {
+        Path path = Path.of(dataDir, "users.log");
+        long start = System.nanoTime();
+        userLog = UserLog.open(path, initialSizeMb * 1024 * 1024);
+
+        log.atInfo()
+            .addKeyValue("path", path.toAbsolutePath())
+            .addKeyValue("users", userLog.size())
+            .addKeyValue("logBytes", userLog.logBytes())
+            .addKeyValue("elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+            .log("Opened embedded user store");
+        if (userLog.recoveredTailBytes() > 0) {
+            log.atWarn()
+                .addKeyValue("path", path.toAbsolutePath())
+                .addKeyValue("clearedBytes", userLog.recoveredTailBytes())
+                .log("Discarded an incomplete write at the end of the user log");
+        }
+
+        Gauge.builder("embedded.users", userLog, UserLog::size)
+            .description("Users in the embedded store")
+            .register(meterRegistry);
+        Gauge.builder("embedded.log.size", userLog, UserLog::logBytes)
+            .description("Bytes of the user log in use")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("embedded.log.garbage_ratio", userLog, UserLog::garbageRatio)
+            .description("Share of the user log taken by overwritten or deleted records")
+            .register(meterRegistry);
+        compactions = Counter.builder("embedded.log.compactions")
+            .description("Compactions of the user log")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        userLog.close();
+    }
+
+    @Scheduled(fixedDelayString = "${embedded.flush-interval-ms:1000}")
+    void flush() {
+        userLog.force();
+    }
+
+    @Scheduled(fixedDelayString = "${embedded.compaction.check-interval-ms:60000}")
+    void compactIfNeeded() {
+        if (userLog.logBytes() < compactionMinBytes || userLog.garbageRatio() < compactionGarbageRatio) {
+            return;
+        }
+        long before = userLog.logBytes();
+        long start = System.nanoTime();
+        try {
+            userLog.compact();
+            compactions.increment();
+            log.atInfo()
+                .addKeyValue("beforeBytes", before)
+                .addKeyValue("afterBytes", userLog.logBytes())
+                .addKeyValue("elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .log("Compacted the user log");
+        } catch (IOException e) {
+            // The log is untouched until the rename, it is retried on the next check
+            log.warn("User log compaction failed: {}", e.getMessage());
+        }
+    }
+
+    // ----- custom queries -----
+
+    @Override
+    public Optional<User> findByProviderId(String providerId) {
+        return Optional.ofNullable(userLog.findByProviderId(providerId));
+    }
+
+    @Override
+    public Optional<User> findByProviderAndProviderId(String provider, String providerId) {
+        return findByProviderId(providerId).filter(user -> Objects.equals(provider, user.getProvider()));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(userLog.findByEmail(email));
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return Optional.ofNullable(userLog.findByUsername(username));
+    }
+
+    @Override
+    public boolean existsByProviderId(String providerId) {
+        return userLog.containsProviderId(providerId);
+    }
+
+    @Override
+    public Optional<ProfileVersionView> findProfileVersionByProviderId(String providerId) {
+        return findByProviderId(providerId)
+            .map(user -> new VersionView(user.getId(), user.getProfileVersion(), user.getTokensRevokedAt()));
+    }
+
+    // ----- query classes (one copy, read preferences do not apply) -----
+
+    @Override
+    public Optional<User> findIdentityByProviderId(String providerId) {
+        return findByProviderId(providerId);
+    }
+
+    @Override
+    public Optional<ProfileVersionView> findIdentityVersionByProviderId(String providerId) {
+        return findProfileVersionByProviderId(providerId);
+    }
+
+    @Override
+    public Optional<User> findForUpdate(String userId) {
+        return findById(userId);
+    }
+
+    @Override
+    public List<User> findAllForListing() {
+        return findAll();
+    }
+
+    @Override
+    public Optional<User> searchByEmail(String email) {
+        return findByEmail(email);
+    }
+
+    @Override
+    public <S extends User> S saveTracked(S entity) {
+        if (entity.getId() == null) {
+            return save(entity);
+        }
+        // Updates get their profileVersion from the stored copy, under the log's write lock
+        userLog.putVersioned(entity);
+        if (syncWrites) {
+            userLog.force();
+        }
+        return entity;
+    }
+
+    // ----- CRUD -----
+
+    @Override
+    public <S extends User> S save(S entity) {
+        if (entity.getId() == null) {
+            entity.setId(new ObjectId().toHexString());
+        }
+        userLog.put(entity);
+        if (syncWrites) {
+            userLog.force();
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends User> S insert(S entity) {
+        if (entity.getId() != null && userLog.containsId(entity.getId())) {
+            throw new DuplicateKeyException("Duplicate id " + entity.getId());
+        }
+        return save(entity);
+    }
+
+    @Override
+    public <S extends User> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public <S extends User> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<User> findById(String id) {
+        return Optional.ofNullable(userLog.get(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return userLog.containsId(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return userLog.findAll();
+    }
+
+    @Override
+    public List<User> findAllById(Iterable<String> ids) {
+        List<User> users = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(users::add));
+        return users;
+    }
+
+    @Override
+    public List<User> findAll(Sort sort) {
+        List<User> all = findAll();
+        if (sort.isSorted()) {
+            all.sort(comparatorOf(sort));
+        }
+        return all;
+    }
+
+    @Override
+    public Page<User> findAll(Pageable pageable) {
+        List<User> all = findAll();
+        // The id breaks ties, so that pages do not overlap
+        Comparator<User> byId = Comparator.comparing(User::getId);
+        all.sort(pageable.getSort().isSorted() ? comparatorOf(pageable.getSort()).thenComparing(byId) : byId);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    /**
+     * In-memory equivalent of a MongoDB sort over User's properties: per order direction,
+     * ignore-case and null handling, where NATIVE puts missing values first when ascending
+     * and last when descending, as MongoDB does
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Comparator<User> comparatorOf(Sort sort) {
+        Comparator<User> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Method getter = getter(order.getProperty());
+            Comparator<Object> values = (a, b) -> order.isIgnoreCase() && a instanceof String x && b instanceof String y
+                ? String.CASE_INSENSITIVE_ORDER.compare(x, y)
+                : ((Comparable) a).compareTo(b);
+            if (order.isDescending()) {
+                values = values.reversed();
+            }
+            boolean nullsFirst = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> true;
+                case NULLS_LAST -> false;
+                case NATIVE -> order.isAscending();
+            };
+            comparator = comparator.thenComparing(user -> ReflectionUtils.invokeMethod(getter, user),
+                nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values));
+        }
+        return comparator;
+    }
+
+    private static Method getter(String property) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(User.class, property);
+        if (descriptor == null || descriptor.getReadMethod() == null
+                || !Comparable.class.isAssignableFrom(ClassUtils.resolvePrimitiveIfNecessary(descriptor.getPropertyType()))) {
+            throw new IllegalArgumentException("Cannot sort users by " + property);
+        }
+        return descriptor.getReadMethod();
+    }
+
+    @Override
+    public long count() {
+        return userLog.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        if (userLog.delete(id) && syncWrites) {
+            userLog.force();
+        }
+    }
+
+    @Override
+    public void delete(User entity) {
+        if (entity.getId() != null) {
+            deleteById(entity.getId());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends User> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        userLog.findAll().forEach(this::delete);
+    }
+
+    // ----- query by example (not used by the application) -----
+
+    @Override
+    public <S extends User> Optional<S> findOne(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User> List<S> findAll(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User> long count(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User> boolean exists(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends User, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupportedExample();
+    }
+
+    private static UnsupportedOperationException unsupportedExample() {
+        return new UnsupportedOperationException("Query by example is not supported by the embedded store");
+    }
+}
@@ -0,0 +1,283 @@
+//src/main/java/com/algoarena/algoarena/FlightRecorderProfiler.java
+
+package com.algoarena.algoarena;
+
+import com.algoarena.algoarena.ApiResponses.AllocationSite;
+import com.algoarena.algoarena.ApiResponses.HotMethod;
+import com.algoarena.algoarena.ApiResponses.JfrStatusResponse;
+import com.algoarena.algoarena.ApiResponses.JfrSummaryResponse;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * On-demand Java Flight Recorder recordings for the admin endpoints, no JVM flags needed
+ *
+ * One recording at a time, with the JDK's "profile" settings (method sampling every 10-20 ms,
+ * allocation sampling) and a capped duration; it stops itself when the duration is over.
+ * Recordings are written to jfr.dump-dir, which is pruned to jfr.max-files files and
+ * jfr.max-dir-mb megabytes (oldest first) before each new one. Stopping returns a summary
+ * parsed from the file: hot methods by top frame and allocation sites by first non-JDK frame,
+ * so JWT and Jackson allocations show up under their own frames instead of Arrays.copyOf.
+ */
+@Component
+public class FlightRecorderProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderProfiler.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private record AllocationKey(String site, String objectClass) {}
+
+    @Value("${jfr.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jfr.settings:profile}")
+    private String settings;
+
+    @Value("${jfr.dump-dir:${java.io.tmpdir}/algo-arena-jfr}")
+    private String dumpDir;
+
+    @Value("${jfr.max-files:5}")
+    private int maxFiles;
+
+    @Value("${jfr.max-dir-mb:500}")
+    private long maxDirMb;
+
+    @Value("${jfr.max-duration-seconds:300}")
+    private long maxDurationSeconds;
+
+    @Value("${jfr.summary-size:20}")
+    private int summarySize;
+
+    private Recording active;
+    private Path activeFile;
+    private LocalDateTime activeStartedAt;
+
+    /**
+     * Start a recording that stops itself after durationSeconds (capped by jfr.max-duration-seconds)
+     * IllegalStateException when profiling is disabled or a recording is already running
+     */
+    public synchronized JfrStatusResponse start(long durationSeconds) throws IOException, ParseException {
+        if (!enabled) {
+            throw new IllegalStateException("JFR profiling is disabled");
+        }
+        if (active != null && active.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running: " + active.getName());
+        }
+        closeActive();
+
+        Path directory = Paths.get(dumpDir);
+        Files.createDirectories(directory);
+        pruneDumps(directory, 1);
+
+        LocalDateTime now = LocalDateTime.now();
+        String name = "algo-arena-" + FILE_TIMESTAMP.format(now);
+        Recording recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName(name);
+        recording.setToDisk(true);
+        recording.setDuration(Duration.ofSeconds(Math.max(1, Math.min(durationSeconds, maxDurationSeconds))));
+        // Written here on stop(), including when the duration runs out on its own
+        recording.setDestination(directory.resolve(name + ".jfr"));
+        recording.start();
+
+        active = recording;
+        activeFile = directory.resolve(name + ".jfr");
+        activeStartedAt = now;
+        log.info("Started JFR recording {} for {} s", name, recording.getDuration().toSeconds());
+        return status();
+    }
+
+    /**
+     * Stop the current (or already finished) recording and summarize it
+     * IllegalStateException when there is nothing to stop
+     */
+    public synchronized JfrSummaryResponse stop() throws IOException {
+        if (active == null) {
+            throw new IllegalStateException("No recording to stop");
+        }
+        if (active.getState() == RecordingState.RUNNING) {
+            active.stop();
+        }
+        Path file = activeFile;
+        closeActive();
+        log.info("Stopped JFR recording, dumped to {}", file);
+        return summarize(file);
+    }
+
+    public synchronized JfrStatusResponse status() {
+        boolean running = active != null && active.getState() == RecordingState.RUNNING;
+        return new JfrStatusResponse(
+            true,
+            running,
+            active != null ? active.getName() : null,
+            activeStartedAt != null ? TIMESTAMP_FORMAT.format(activeStartedAt) : null,
+            active != null && active.getDuration() != null ? active.getDuration().toSeconds() : 0,
+            listDumps()
+        );
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (active != null && active.getState() == RecordingState.RUNNING) {
+            active.stop();
+        }
+        closeActive();
+    }
+
+    /**
+     * Hot methods (execution samples by top frame) and allocation sites (sampled allocation
+     * weight by first non-JDK frame and allocated class)
+     */
+    JfrSummaryResponse summarize(Path file) throws IOException {
+        Map<String, Long> samplesByMethod = new HashMap<>();
+        Map<AllocationKey, Long> bytesBySite = new HashMap<>();
+        long executionSamples = 0;
+        long allocatedBytes = 0;
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        RecordedFrame top = firstFrame(event.getStackTrace(), false);
+                        if (top != null) {
+                            executionSamples++;
+                            samplesByMethod.merge(methodName(top), 1L, Long::sum);
+                        }
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        RecordedFrame site = firstFrame(event.getStackTrace(), true);
+                        RecordedClass objectClass = event.getClass("objectClass");
+                        long weight = event.getLong("weight");
+                        allocatedBytes += weight;
+                        bytesBySite.merge(new AllocationKey(
+                            site != null ? methodName(site) + ":" + site.getLineNumber() : "unknown",
+                            objectClass != null ? objectClass.getName() : "unknown"
+                        ), weight, Long::sum);
+                    }
+                    default -> { }
+                }
+            }
+        }
+
+        long totalSamples = executionSamples;
+        List<HotMethod> hotMethods = samplesByMethod.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(summarySize)
+            .map(entry -> new HotMethod(entry.getKey(), entry.getValue(), percent(entry.getValue(), totalSamples)))
+            .toList();
+
+        long totalBytes = allocatedBytes;
+        List<AllocationSite> allocationSites = bytesBySite.entrySet().stream()
+            .sorted(Map.Entry.<AllocationKey, Long>comparingByValue().reversed())
+            .limit(summarySize)
+            .map(entry -> new AllocationSite(entry.getKey().site(), entry.getKey().objectClass(),
+                entry.getValue(), percent(entry.getValue(), totalBytes)))
+            .toList();
+
+        return new JfrSummaryResponse(true, file.getFileName().toString(), executionSamples, hotMethods,
+            allocatedBytes, allocationSites);
+    }
+
+    private void closeActive() {
+        if (active != null) {
+            active.close();
+            active = null;
+        }
+    }
+
+    /**
+     * Delete the oldest dumps until reserve more files fit under both limits
+     */
+    private void pruneDumps(Path directory, int reserve) throws IOException {
+        List<Path> dumps = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(".jfr")).forEach(dumps::add);
+        }
+        dumps.sort(Comparator.comparing(path -> path.getFileName().toString())); // timestamped names, oldest first
+
+        long totalBytes = 0;
+        for (Path dump : dumps) {
+            totalBytes += Files.size(dump);
+        }
+        long maxBytes = maxDirMb * 1024 * 1024;
+        while (!dumps.isEmpty() && (dumps.size() + reserve > maxFiles || totalBytes > maxBytes)) {
+            Path oldest = dumps.remove(0);
+            totalBytes -= Files.size(oldest);
+            Files.deleteIfExists(oldest);
+            log.info("Deleted old JFR dump {}", oldest.getFileName());
+        }
+    }
+
+    private List<String> listDumps() {
+        Path directory = Paths.get(dumpDir);
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(".jfr"))
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        } catch (IOException e) {
+            log.warn("Could not list JFR dumps in {}: {}", directory, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static RecordedFrame firstFrame(RecordedStackTrace stackTrace, boolean skipJdkFrames) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            if (!skipJdkFrames || !isJdkFrame(frame)) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static String methodName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static double percent(long part, long total) {
+        return total > 0 ? Math.round(part * 1000.0 / total) / 10.0 : 0;
+    }
+}
@@ -3,15 +3,24 @@
 package com.algoarena.algoarena;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import com.algoarena.algoarena.ApiResponses.AuthStatusResponse;
+import com.algoarena.algoarena.ApiResponses.AuthenticatedUserResponse;
+import com.algoarena.algoarena.ApiResponses.ErrorResponse;
+import com.algoarena.algoarena.ApiResponses.LoginCallbackResponse;
+import com.algoarena.algoarena.ApiResponses.MessageResponse;
+
 import java.io.IOException;
-import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/frontend")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001", "https://*.vercel.app"})
 public class FrontendAuthController {
@@ -22,6 +31,12 @@ public class FrontendAuthController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private LoginHandoffCookie loginHandoffCookie;
+    
+    @Autowired
+    private LoginEventRecorder loginEventRecorder;
+    
     /**
      * Initiate OAuth2 login for frontend
      * Redirects to Google OAuth2 with proper callback
@@ -46,13 +61,13 @@ public class FrontendAuthController {
     @GetMapping("/auth/callback")
     public ResponseEntity<?> handleOAuth2Callback(HttpServletRequest request, HttpServletResponse response) {
         try {
-            // Get user from session (set by OAuth2LoginSuccessHandler)
-            User currentUser = (User) request.getSession().getAttribute("currentUser");
+            // Get user from the signed handoff cookie (set by OAuth2LoginSuccessHandler)
+            User currentUser = loginHandoffCookie.resolve(request).orElse(null);
             
             if (currentUser == null) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Authentication failed",
-                    "message", "No user session found"
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "Authentication failed",
+                    "No user session found"
                 ));
             }
             
@@ -61,26 +76,19 @@ public class FrontendAuthController {
             String refreshToken = jwtUtil.generateRefreshToken(currentUser);
             
             // Return tokens for frontend to store
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "accessToken", accessToken,
-                "refreshToken", refreshToken,
-                "tokenType", "Bearer",
-                "expiresIn", 86400,
-                "user", Map.of(
-                    "id", currentUser.getId(),
-                    "name", currentUser.getName(),
-                    "email", currentUser.getEmail() != null ? currentUser.getEmail() : "",
-                    "username", currentUser.getUsername(),
-                    "provider", currentUser.getProvider(),
-                    "avatarUrl", currentUser.getAvatarUrl() != null ? currentUser.getAvatarUrl() : ""
-                )
+            return ResponseEntity.ok(new LoginCallbackResponse(
+                true,
+                accessToken,
+                refreshToken,
+                "Bearer",
+                UserMapper.ACCESS_TOKEN_EXPIRES_IN_SECONDS,
+                UserMapper.toSummary(currentUser)
             ));
             
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(Map.of(
-                "error", "Token generation failed",
-                "message", e.getMessage()
+            return ResponseEntity.internalServerError().body(new ErrorResponse(
+                "Token generation failed",
+                e.getMessage()
             ));
         }
     }
@@ -89,21 +97,33 @@ public class FrontendAuthController {
      * Frontend-friendly user info endpoint
      */
     @GetMapping("/user")
-    public ResponseEntity<?> getCurrentUserForFrontend(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getCurrentUserForFrontend(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @AuthenticationPrincipal User principal) {
         try {
+            // Conditional GET: JwtAuthenticationFilter already loaded the user, so skip the reload and the body
+            if (ifNoneMatch != null && principal != null) {
+                String etag = ProfileETag.of(principal, accept);
+                if (ProfileETag.matches(ifNoneMatch, etag)) {
+                    return ProfileETag.notModified(etag);
+                }
+            }
+            
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return ResponseEntity.status(401).body(Map.of(
-                    "authenticated", false,
-                    "message", "No valid token provided"
+                return ResponseEntity.status(401).body(new AuthStatusResponse(
+                    false,
+                    "No valid token provided"
                 ));
             }
             
             String token = authHeader.substring(7);
             
             if (!jwtUtil.validateToken(token)) {
-                return ResponseEntity.status(401).body(Map.of(
-                    "authenticated", false,
-                    "message", "Token is invalid or expired"
+                return ResponseEntity.status(401).body(new AuthStatusResponse(
+                    false,
+                    "Token is invalid or expired"
                 ));
             }
             
@@ -111,32 +131,27 @@ public class FrontendAuthController {
             var userOpt = userService.findByProviderId(providerId);
             
             if (userOpt.isEmpty()) {
-                return ResponseEntity.status(401).body(Map.of(
-                    "authenticated", false,
-                    "message", "User not found"
+                return ResponseEntity.status(401).body(new AuthStatusResponse(
+                    false,
+                    "User not found"
                 ));
             }
             
             User user = userOpt.get();
             
-            return ResponseEntity.ok(Map.of(
-                "authenticated", true,
-                "user", Map.of(
-                    "id", user.getId(),
-                    "name", user.getName(),
-                    "email", user.getEmail() != null ? user.getEmail() : "",
-                    "username", user.getUsername(),
-                    "provider", user.getProvider(),
-                    "avatarUrl", user.getAvatarUrl() != null ? user.getAvatarUrl() : "",
-                    "createdAt", user.getCreatedAt(),
-                    "lastLoginAt", user.getLastLoginAt()
-                )
-            ));
+            if (jwtUtil.isRevoked(token, user.getTokensRevokedAt())) {
+                return ResponseEntity.status(401).body(new AuthStatusResponse(
+                    false,
+                    "Token has been revoked"
+                ));
+            }
+            
+            return ProfileETag.ok(ProfileETag.of(user, accept)).body(new AuthenticatedUserResponse(true, UserMapper.toProfile(user)));
             
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of(
-                "authenticated", false,
-                "message", "Server error: " + e.getMessage()
+            return ResponseEntity.status(500).body(new AuthStatusResponse(
+                false,
+                "Server error: " + e.getMessage()
             ));
         }
     }
@@ -145,12 +160,17 @@ public class FrontendAuthController {
      * Logout endpoint for frontend
      */
     @PostMapping("/auth/logout")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
         // Since JWT is stateless, logout is handled on frontend by removing tokens
-        // In a production app, you might want to blacklist the token
-        return ResponseEntity.ok(Map.of(
-            "success", true,
-            "message", "Logged out successfully"
-        ));
+        // (POST /api/protected/sessions/revoke invalidates them server side)
+        long startNanos = System.nanoTime();
+        String token = jwtUtil.resolveBearerToken(authHeader);
+        if (token != null && jwtUtil.validateToken(token)) {
+            // Identify the user from the claims alone, no database lookup
+            loginEventRecorder.record(LoginEvent.Type.LOGOUT, LoginEvent.Outcome.SUCCESS,
+                jwtUtil.extractUserId(token), jwtUtil.extractClaim(token, claims -> claims.get("provider", String.class)),
+                startNanos, null);
+        }
+        return ResponseEntity.ok(new MessageResponse(true, "Logged out successfully"));
     }
 }
\ No newline at end of file
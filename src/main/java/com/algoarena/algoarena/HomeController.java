@@ -3,8 +3,7 @@
 package com.algoarena.algoarena;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,11 +11,15 @@ import jakarta.servlet.http.HttpServletRequest;
 // import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 public class HomeController {
     
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private LoginHandoffCookie loginHandoffCookie;
+    
     @GetMapping("/")
     public String home() {
         return """
@@ -41,9 +44,9 @@ public class HomeController {
     }
     
     @GetMapping("/dashboard")
-    public String dashboard(@AuthenticationPrincipal OAuth2User principal, HttpServletRequest request) {
-        // Get user from session (set by our success handler)
-        User currentUser = (User) request.getSession().getAttribute("currentUser");
+    public String dashboard(HttpServletRequest request) {
+        // Get user from the signed handoff cookie (set by our success handler)
+        User currentUser = loginHandoffCookie.resolve(request).orElse(null);
         
         if (currentUser != null) {
             // Show data from our database
@@ -73,9 +76,10 @@ public class HomeController {
                 currentUser.getAvatarUrl() != null ? currentUser.getAvatarUrl() : ""
             );
         } else {
-            // Fallback to OAuth2 data if session doesn't have user
-            return "Welcome to your dashboard, " + principal.getAttribute("name") + "! 🎉 <br><br> " +
-                   "<a href='/logout'>Logout</a>";
+            // No (valid) login cookie - there is no server-side session to fall back to
+            return "Your login has expired, please sign in again. <br><br> " +
+                   "<a href='/oauth2/authorization/google'>Login with Google</a> | " +
+                   "<a href='/oauth2/authorization/github'>Login with GitHub</a>";
         }
     }
     
@@ -0,0 +1,86 @@
+//src/main/java/com/algoarena/algoarena/HttpCookieOAuth2AuthorizationRequestRepository.java
+
+package com.algoarena.algoarena;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Keeps the pending OAuth2 authorization request (state, redirect URI, PKCE data)
+ * in a signed short-lived cookie instead of the HttpSession, so the provider
+ * callback can land on any node
+ */
+@Component
+@Profile("!reactive")
+public class HttpCookieOAuth2AuthorizationRequestRepository implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+    public static final String COOKIE_NAME = "oauth2_auth_request";
+
+    // Enough time to pick an account / approve consent at the provider
+    private static final Duration COOKIE_TTL = Duration.ofMinutes(5);
+
+    // Only Spring Security and JDK types may appear in the serialized request
+    private static final ObjectInputFilter DESERIALIZATION_FILTER =
+        ObjectInputFilter.Config.createFilter("java.**;org.springframework.security.**;!*");
+
+    @Autowired
+    private SignedCookieCodec cookieCodec;
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        return cookieCodec.read(request, COOKIE_NAME)
+            .map(HttpCookieOAuth2AuthorizationRequestRepository::deserialize)
+            .orElse(null);
+    }
+
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest,
+                                         HttpServletRequest request, HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            cookieCodec.clear(response, COOKIE_NAME);
+            return;
+        }
+        cookieCodec.write(response, COOKIE_NAME, serialize(authorizationRequest), COOKIE_TTL);
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request, HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        cookieCodec.clear(response, COOKIE_NAME);
+        return authorizationRequest;
+    }
+
+    private static String serialize(OAuth2AuthorizationRequest authorizationRequest) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(authorizationRequest);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize OAuth2 authorization request", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    private static OAuth2AuthorizationRequest deserialize(String value) {
+        // Only reached after the HMAC check in SignedCookieCodec succeeded
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(value)))) {
+            in.setObjectInputFilter(DESERIALIZATION_FILTER);
+            return (OAuth2AuthorizationRequest) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
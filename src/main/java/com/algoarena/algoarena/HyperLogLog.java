@@ -0,0 +1,105 @@
+//src/main/java/com/algoarena/algoarena/HyperLogLog.java
+
+package com.algoarena.algoarena;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog distinct counter (precision 14: 16 KB of registers, ~0.8% standard error)
+ *
+ * Sketches merge by taking the register-wise maximum, so daily sketches can be combined
+ * into weekly/monthly ones and sketches from several nodes can be combined losslessly.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 14;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTER_COUNT];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public static HyperLogLog fromBytes(byte[] registers) {
+        if (registers == null || registers.length != REGISTER_COUNT) {
+            throw new IllegalArgumentException("Expected " + REGISTER_COUNT + " registers");
+        }
+        return new HyperLogLog(registers.clone());
+    }
+
+    /**
+     * Add a value by its 64-bit hash (see {@link #hash(String)})
+     * Returns true if the sketch changed
+     */
+    public synchronized boolean add(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        // Rank of the first 1-bit in the remaining bits, capped so an all-zero tail still terminates
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean add(String value) {
+        return add(hash(value));
+    }
+
+    public void merge(HyperLogLog other) {
+        byte[] otherRegisters = other.toBytes(); // copied outside our lock, no lock ordering issues
+        synchronized (this) {
+            for (int i = 0; i < REGISTER_COUNT; i++) {
+                if (otherRegisters[i] > registers[i]) {
+                    registers[i] = otherRegisters[i];
+                }
+            }
+        }
+    }
+
+    public synchronized byte[] toBytes() {
+        return registers.clone();
+    }
+
+    public synchronized long estimate() {
+        double sum = 0;
+        int zeroRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        // Small range correction (linear counting)
+        if (estimate <= 2.5 * REGISTER_COUNT && zeroRegisters > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes followed by the MurmurHash3 finalizer
+     */
+    public static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
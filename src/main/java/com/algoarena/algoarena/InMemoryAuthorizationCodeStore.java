@@ -0,0 +1,76 @@
+//src/main/java/com/algoarena/algoarena/InMemoryAuthorizationCodeStore.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default single-node code store: an expiring ConcurrentHashMap
+ * Redemption is a single remove(), so a code can only ever be used once. Not lock-free:
+ * put() and remove() lock the code's hash bin, but codes are 192 random bits, so two
+ * logins practically never share a bin and the lock is uncontended.
+ * At auth.handoff.max-pending-codes, expired codes are purged before a login is turned
+ * away (CapacityExceededException, redirected to the frontend as error=login_busy).
+ * Only valid when the frontend exchange hits the node that handled the login
+ * (use auth.handoff.store=mongo behind a non-sticky load balancer)
+ */
+@Component
+@ConditionalOnProperty(name = "auth.handoff.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryAuthorizationCodeStore implements AuthorizationCodeStore {
+
+    // Compact entry: the two tokens plus an absolute deadline
+    private record Entry(String accessToken, String refreshToken, long expiresAtMillis) {}
+
+    private final ConcurrentHashMap<String, Entry> codes = new ConcurrentHashMap<>();
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${auth.handoff.code-ttl-seconds:60}")
+    private long codeTtlSeconds;
+
+    // Upper bound on pending codes so a login flood cannot grow the heap without limit
+    @Value("${auth.handoff.max-pending-codes:100000}")
+    private int maxPendingCodes;
+
+    @Override
+    public String issue(IssuedTokens tokens) {
+        if (codes.size() >= maxPendingCodes) {
+            purgeExpired();
+            if (codes.size() >= maxPendingCodes) {
+                throw new CapacityExceededException("Too many pending login codes");
+            }
+        }
+        String code = AuthorizationCodeStore.newCode(random);
+        codes.put(code, new Entry(tokens.accessToken(), tokens.refreshToken(),
+            System.currentTimeMillis() + codeTtlSeconds * 1000));
+        return code;
+    }
+
+    @Override
+    public Optional<IssuedTokens> redeem(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        Entry entry = codes.remove(code);
+        if (entry == null || entry.expiresAtMillis() < System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(new IssuedTokens(entry.accessToken(), entry.refreshToken()));
+    }
+
+    /**
+     * Drop codes that were never redeemed
+     */
+    @Scheduled(fixedDelayString = "${auth.handoff.purge-interval-ms:30000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        codes.values().removeIf(entry -> entry.expiresAtMillis() < now);
+    }
+}
@@ -0,0 +1,89 @@
+//src/main/java/com/algoarena/algoarena/JacksonConfig.java
+
+package com.algoarena.algoarena;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tuning for the application ObjectMapper (used by Spring MVC and WebFlux)
+ */
+@Configuration
+public class JacksonConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(JacksonConfig.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Replaces reflective getter calls with generated lambdas (Boot registers Module beans)
+     * Static: the ObjectMapper this class injects is built from the Module beans, an instance
+     * factory method would need this class before the mapper exists
+     */
+    @Bean
+    public static Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Build and cache the serializers for every response type once at startup,
+     * instead of on the first real request for each endpoint
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmSerializers() {
+        for (Object sample : sampleResponses()) {
+            try {
+                objectMapper.writeValueAsBytes(sample);
+            } catch (JsonProcessingException e) {
+                log.warn("Could not pre-warm serializer for {}: {}", sample.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One instance of every response body type
+     */
+    static List<Object> sampleResponses() {
+        User user = new User("sample", "google", "Sample User", "sample@example.com", "sample", "https://example.com/a.png");
+        user.setId("000000000000000000000000");
+        user.setCreatedAt(LocalDateTime.now());
+
+        ApiResponses.UserProfile profile = UserMapper.toProfile(user);
+        return List.of(
+            new ApiResponses.ProfileResponse(true, profile),
+            new ApiResponses.ProfileUpdateResponse(true, "Profile updated successfully", UserMapper.toUpdated(user)),
+            UserMapper.toDashboard(user),
+            new ApiResponses.UserListResponse(true, List.of(UserMapper.toAdminView(user)), user.getName()),
+            UserMapper.toTokenResponse("a", "r", user),
+            new ApiResponses.LoginCallbackResponse(true, "a", "r", "Bearer", UserMapper.ACCESS_TOKEN_EXPIRES_IN_SECONDS, UserMapper.toSummary(user)),
+            new ApiResponses.ValidationResponse(true, "id", "Token is valid"),
+            new ApiResponses.AuthenticatedUserResponse(true, profile),
+            new ApiResponses.AuthStatusResponse(false, "User not found"),
+            new ApiResponses.LoginStatsResponse(true, 1, 1, 1, List.of(new ApiResponses.ProviderCount("google", 1)),
+                List.of(new ApiResponses.DailySignups("2024-01-01", List.of(new ApiResponses.ProviderCount("google", 1)))), null),
+            new ApiResponses.UserStatsResponse(true, 1, List.of(new ApiResponses.ProviderCount("google", 1)),
+                List.of(new ApiResponses.PeriodCount("2024-01", 1)), List.of(new ApiResponses.PeriodCount("2024-01-01", 1)),
+                List.of(new ApiResponses.ActiveUsers(1, 1)), null),
+            new ApiResponses.TracesResponse(true, 1, List.of(new ApiResponses.TraceView("id", "GET", "/", 200, null, 1,
+                List.of(new ApiResponses.SpanView("security", 0, 1)), 0))),
+            new ApiResponses.JfrStatusResponse(true, false, null, null, 0, List.of()),
+            new ApiResponses.JfrSummaryResponse(true, "a.jfr", 1, List.of(new ApiResponses.HotMethod("a.b", 1, 100)),
+                1, List.of(new ApiResponses.AllocationSite("a.b:1", "byte[]", 1, 100))),
+            new ApiResponses.MessageResponse(true, "Logged out successfully"),
+            new ApiResponses.ErrorResponse("Unauthorized", "Invalid or expired token")
+        );
+    }
+}
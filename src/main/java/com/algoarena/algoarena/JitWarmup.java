@@ -0,0 +1,256 @@
+//src/main/java/com/algoarena/algoarena/JitWarmup.java
+
+package com.algoarena.algoarena;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Warms up the JIT before the instance reports ready
+ *
+ * Boot only switches readiness to ACCEPTING_TRAFFIC once every ApplicationRunner has returned,
+ * so this runner holds readiness back until the synthetic load is done or warmup.budget-ms is
+ * spent. The load covers the hot paths of real traffic:
+ *   - JwtUtil: access/refresh token minting, validation, subject extraction, revocation check
+ *   - Jackson: every response body type (JacksonConfig.sampleResponses)
+ *   - the servlet stack over loopback HTTP: security chain, JwtAuthenticationFilter, the user
+ *     lookup (single flight, lookup guard, repository), controllers and message converters
+ *
+ * The HTTP requests authenticate as a user with a random providerId that is never saved:
+ * WarmupUserStandIn answers the repository reads for it while the load runs, so the lookup
+ * hit path is warmed without writing to the users collection.
+ *
+ * Metrics: warmup.duration (tagged with the outcome) and warmup.operations per phase.
+ */
+@Component
+public class JitWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(JitWarmup.class);
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private WarmupUserStandIn standIn;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.budget-ms:30000}")
+    private long budgetMs;
+
+    @Value("${warmup.threads:2}")
+    private int threads;
+
+    @Value("${warmup.jwt-cycles:20000}")
+    private int jwtCycles;
+
+    @Value("${warmup.serialization-cycles:50000}")
+    private int serializationCycles;
+
+    @Value("${warmup.http-requests:3000}")
+    private int httpRequests;
+
+    // "pending" until run() returns, then the outcome (or "disabled")
+    private volatile String state = "pending";
+
+    /**
+     * "pending", "disabled" or the outcome: completed, budget_exceeded, interrupted, failed
+     */
+    public String state() {
+        return state;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            state = "disabled";
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        int workers = Math.max(1, threads);
+        String outcome = "completed";
+
+        // Random providerId, no token for it can exist outside this process
+        User user = newUser("warmup-" + UUID.randomUUID());
+        standIn.activate(user);
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "jit-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Integer port = environment.getProperty("local.server.port", Integer.class);
+            HttpClient client = port != null
+                ? HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(2)).build()
+                : null;
+
+            List<Future<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                tasks.add(pool.submit(() -> warmUp(user, client, port, workers, deadline)));
+            }
+            for (Future<Boolean> task : tasks) {
+                long remaining = deadline - System.nanoTime();
+                if (!task.get(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                    outcome = "budget_exceeded";
+                }
+            }
+        } catch (TimeoutException e) {
+            outcome = "budget_exceeded";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "interrupted";
+        } catch (ExecutionException e) {
+            outcome = "failed";
+            log.warn("JIT warm-up failed: {}", e.getCause().toString());
+        } finally {
+            pool.shutdownNow();
+            standIn.deactivate();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("warmup.duration")
+            .description("Time spent warming up the JIT before reporting ready")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("JIT warm-up {} in {} ms", outcome, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        state = outcome;
+    }
+
+    private static User newUser(String providerId) {
+        User user = new User(providerId, "google", "Warm-up User", "warmup@example.com", "warmup", null);
+        user.setId("000000000000000000000000");
+        user.setTokensRevokedAt(LocalDateTime.now().minusDays(1)); // exercises the revocation check
+        return user;
+    }
+
+    /**
+     * One worker's share of every phase, interleaved so that all hot paths get some warm-up
+     * even when the budget runs out; false if the deadline was hit first
+     */
+    private boolean warmUp(User user, HttpClient client, Integer port, int workers, long deadline) {
+        int jwtTarget = jwtCycles / workers;
+        int serializationTarget = serializationCycles / workers;
+        int httpTarget = client != null ? httpRequests / workers : 0;
+        List<Object> samples = JacksonConfig.sampleResponses();
+        String bearer = "Bearer " + jwtUtil.generateAccessToken(user);
+
+        Counter jwtOps = operations("jwt");
+        Counter serializationOps = operations("serialization");
+        Counter httpOps = operations("http");
+
+        int jwtDone = 0;
+        int serializationDone = 0;
+        int httpDone = 0;
+        while (jwtDone < jwtTarget || serializationDone < serializationTarget || httpDone < httpTarget) {
+            if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+
+            if (jwtDone < jwtTarget) {
+                String accessToken = jwtUtil.generateAccessToken(user);
+                jwtUtil.generateRefreshToken(user);
+                if (jwtUtil.validateToken(accessToken)) {
+                    jwtUtil.isRevoked(accessToken, user.getTokensRevokedAt());
+                    jwtUtil.extractUsername(accessToken);
+                }
+                jwtDone++;
+                jwtOps.increment();
+            }
+
+            // Several serializations per round: they are much cheaper than a JWT cycle
+            for (int i = 0; i < 4 && serializationDone < serializationTarget; i++) {
+                try {
+                    objectMapper.writeValueAsBytes(samples.get(serializationDone % samples.size()));
+                } catch (IOException e) {
+                    log.debug("Warm-up serialization failed: {}", e.getMessage());
+                }
+                serializationDone++;
+                serializationOps.increment();
+            }
+
+            if (httpDone < httpTarget) {
+                try {
+                    client.send(request(port, httpDone, bearer), HttpResponse.BodyHandlers.discarding());
+                } catch (IOException e) {
+                    // Server not reachable over loopback (e.g. behind a different bind address), skip HTTP
+                    log.debug("Warm-up HTTP request failed, skipping the HTTP phase: {}", e.getMessage());
+                    httpTarget = httpDone;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                httpDone++;
+                httpOps.increment();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Authenticated profile and /me reads, plus an unauthenticated request for the 401 path
+     * (only endpoints without rate limits and without writes)
+     */
+    private static HttpRequest request(int port, int sequence, String bearer) {
+        String path = switch (sequence % 3) {
+            case 0 -> "/api/protected/profile";
+            case 1 -> "/api/auth/me";
+            default -> "/api/protected/dashboard";
+        };
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(5))
+            .GET();
+        // Every 10th request without credentials
+        if (sequence % 10 != 9) {
+            builder.header("Authorization", bearer);
+        }
+        return builder.build();
+    }
+
+    private Counter operations(String phase) {
+        return Counter.builder("warmup.operations")
+            .description("Synthetic operations run during JIT warm-up")
+            .tag("phase", phase)
+            .register(meterRegistry);
+    }
+}
@@ -6,7 +6,11 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,32 +21,56 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
+@Profile("!reactive")
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // SLF4J instead of the inherited commons-logging logger: parameterized, structured fields
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserLookupGuard userLookupGuard;
+
+    // Successful authentications happen on every request, only one in N is logged
+    @Value("${logging.sampling.auth-success:100}")
+    private int authSuccessSampleRate;
+
+    // Degraded authentications are always worth seeing, but at most one line per interval
+    @Value("${logging.rate-limit.auth-degraded-ms:1000}")
+    private long authDegradedLogIntervalMs;
+
+    private final AtomicLong nextAuthDegradedLogNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder suppressedAuthDegradedLogs = new LongAdder();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         
-        final String requestTokenHeader = request.getHeader("Authorization");
+        // Check if Authorization header exists and starts with "Bearer "
+        final String jwtToken = jwtUtil.resolveBearerToken(request.getHeader("Authorization"));
 
         String providerId = null;
-        String jwtToken = null;
 
-        // Check if Authorization header exists and starts with "Bearer "
-        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+        if (jwtToken != null) {
             try {
                 providerId = jwtUtil.extractUsername(jwtToken);
             } catch (Exception e) {
-                logger.warn("Unable to get JWT Token or JWT Token has expired");
+                log.atWarn()
+                    .setMessage("Unable to get JWT Token or JWT Token has expired")
+                    .addKeyValue("event", "jwt_auth_failed")
+                    .addKeyValue("reason", "unreadable")
+                    .addKeyValue("path", request.getRequestURI())
+                    .log();
             }
         }
 
@@ -53,9 +81,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (jwtUtil.validateToken(jwtToken)) {
                 
                 // Get user from database to ensure user still exists
-                Optional<User> userOpt = userService.findByProviderId(providerId);
+                Optional<User> userOpt;
+                try {
+                    userOpt = userService.findByProviderId(providerId);
+                } catch (UserLookupGuard.LookupUnavailableException e) {
+                    // Degraded mode: the user store is slow or down, trust the verified token claims
+                    userOpt = userLookupGuard.fromTokenClaims(jwtToken);
+                    logAuthDegraded(e, providerId, userOpt.isPresent());
+                }
                 
-                if (userOpt.isPresent()) {
+                if (userOpt.isPresent() && jwtUtil.isRevoked(jwtToken, userOpt.get().getTokensRevokedAt())) {
+                    log.atWarn()
+                        .setMessage("JWT Token was revoked")
+                        .addKeyValue("event", "jwt_auth_failed")
+                        .addKeyValue("reason", "revoked")
+                        .addKeyValue("providerId", providerId)
+                        .log();
+                } else if (userOpt.isPresent()) {
                     User user = userOpt.get();
                     
                     // Create authentication token
@@ -71,12 +113,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     // Set authentication in security context
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                     
-                    logger.info("✅ JWT Authentication successful for user: " + user.getName());
+                    if (log.isInfoEnabled() && LogSampler.sample(authSuccessSampleRate)) {
+                        log.atInfo()
+                            .setMessage("JWT Authentication successful")
+                            .addKeyValue("event", "jwt_auth_succeeded")
+                            .addKeyValue("userId", user.getId())
+                            .addKeyValue("sampleRate", authSuccessSampleRate)
+                            .log();
+                    }
                 } else {
-                    logger.warn("❌ User not found in database for providerId: " + providerId);
+                    log.atWarn()
+                        .setMessage("User not found in database")
+                        .addKeyValue("event", "jwt_auth_failed")
+                        .addKeyValue("reason", "unknown_user")
+                        .addKeyValue("providerId", providerId)
+                        .log();
                 }
             } else {
-                logger.warn("❌ JWT Token validation failed");
+                log.atWarn()
+                    .setMessage("JWT Token validation failed")
+                    .addKeyValue("event", "jwt_auth_failed")
+                    .addKeyValue("reason", "invalid")
+                    .addKeyValue("path", request.getRequestURI())
+                    .log();
             }
         }
 
@@ -84,6 +143,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * One warning per logging.rate-limit.auth-degraded-ms, carrying the number of degraded
+     * authentications left out since the previous one (user.lookup.fallbacks has exact counts)
+     */
+    private void logAuthDegraded(UserLookupGuard.LookupUnavailableException e, String providerId, boolean fromClaims) {
+        long now = System.nanoTime();
+        long next = nextAuthDegradedLogNanos.get();
+        if (now - next < 0 || !nextAuthDegradedLogNanos.compareAndSet(next, now + TimeUnit.MILLISECONDS.toNanos(authDegradedLogIntervalMs))) {
+            suppressedAuthDegradedLogs.increment();
+            return;
+        }
+        log.atWarn()
+            .setMessage(fromClaims ? "Authenticating from token claims, user lookup unavailable"
+                : "Rejecting token, user lookup unavailable and token claims not accepted")
+            .addKeyValue("event", "jwt_auth_degraded")
+            .addKeyValue("reason", e.getMessage())
+            .addKeyValue("providerId", providerId)
+            .addKeyValue("fromTokenClaims", fromClaims)
+            .addKeyValue("suppressed", suppressedAuthDegradedLogs.sumThenReset())
+            .log();
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
@@ -96,6 +177,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                path.equals("/error") ||
                path.startsWith("/api/auth") ||
                path.startsWith("/api/users") ||
-               path.startsWith("/api/health");
+               path.startsWith("/api/health") ||
+               path.startsWith("/actuator/health") ||
+               path.equals("/livez") ||
+               path.equals("/readyz");
     }
 }
\ No newline at end of file
@@ -8,6 +8,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -56,15 +60,28 @@ public class JwtUtil {
      * Create JWT token with claims and expiration
      */
     private String createToken(Map<String, Object> claims, String subject, long expiration) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        
-        return Jwts.builder()
-                .claims(claims)
-                .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(key, Jwts.SIG.HS256)
-                .compact();
+        try (RequestTracing.Span span = RequestTracing.span("jwt.sign")) {
+            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+            
+            return Jwts.builder()
+                    .claims(claims)
+                    .subject(subject)
+                    .issuedAt(new Date(System.currentTimeMillis()))
+                    .expiration(new Date(System.currentTimeMillis() + expiration))
+                    .signWith(key, Jwts.SIG.HS256)
+                    .compact();
+        }
+    }
+    
+    /**
+     * Extract the raw token from an "Authorization: Bearer ..." header value
+     * Returns null if the header is missing or not a bearer token
+     */
+    public String resolveBearerToken(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        return authHeader.substring(7);
     }
     
     /**
@@ -88,6 +105,19 @@ public class JwtUtil {
         return extractClaim(token, Claims::getExpiration);
     }
     
+    /**
+     * True if the token was issued at or before the user's last token revocation
+     * (iat has second precision, so a token from the revocation second counts as revoked)
+     */
+    public boolean isRevoked(String token, LocalDateTime tokensRevokedAt) {
+        if (tokensRevokedAt == null) {
+            return false;
+        }
+        Date issuedAt = extractClaim(token, Claims::getIssuedAt);
+        Instant revokedAt = tokensRevokedAt.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS);
+        return issuedAt == null || !issuedAt.toInstant().isAfter(revokedAt);
+    }
+    
     /**
      * Extract specific claim from JWT token
      */
@@ -100,13 +130,16 @@ public class JwtUtil {
      * Extract all claims from JWT token
      */
     private Claims extractAllClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        // Traced per parse: the same token is often parsed several times in one request
+        try (RequestTracing.Span span = RequestTracing.span("jwt.parse")) {
+            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+            
+            return Jwts.parser()
+                    .verifyWith(key)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        }
     }
     
     /**
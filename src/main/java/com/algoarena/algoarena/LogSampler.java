@@ -0,0 +1,24 @@
+//src/main/java/com/algoarena/algoarena/LogSampler.java
+
+package com.algoarena.algoarena;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sampling for high-frequency success logs (one event in N is written)
+ *
+ * Random rather than counter based so request threads share no state. Failures are never
+ * sampled, callers only guard their success paths with this. Sampled lines carry the rate
+ * (sampleRate field) so counts can be scaled back up when searching logs.
+ */
+public final class LogSampler {
+
+    private LogSampler() {}
+
+    /**
+     * True for roughly one call in oneIn; oneIn <= 1 keeps every event
+     */
+    public static boolean sample(int oneIn) {
+        return oneIn <= 1 || ThreadLocalRandom.current().nextInt(oneIn) == 0;
+    }
+}
@@ -0,0 +1,298 @@
+//src/main/java/com/algoarena/algoarena/LoginAnalytics.java
+
+package com.algoarena.algoarena;
+
+import com.algoarena.algoarena.ApiResponses.DailySignups;
+import com.algoarena.algoarena.ApiResponses.LoginStatsResponse;
+import com.algoarena.algoarena.ApiResponses.ProviderCount;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory login statistics: daily/weekly/monthly active users and signups per day per provider
+ *
+ * Active users are counted with one HyperLogLog per UTC day (WAU/MAU are unions of daily
+ * sketches), signups with LongAdders. A snapshot of all figures is rebuilt on a tick, so
+ * readers get a precomputed object and never run an aggregation.
+ *
+ * Checkpoints (analytics.checkpoint.enabled): every node overwrites its own daily sketches
+ * in analytics_activity and adds its signup deltas to analytics_signups with $inc; the
+ * cluster-wide view is the max-merge of all nodes' sketches. State is restored by the first
+ * checkpoint tick, on the scheduler rather than on the startup path; until a restore succeeded
+ * nothing is written, so a node never overwrites its own sketches with empty ones.
+ *
+ * No UserChangeStreamEvent listener: other nodes' logins and signups already reach this
+ * node through the checkpoints it reads back, and the stream carries this node's own writes
+ * too, so counting its events here would count them twice.
+ */
+@Component
+public class LoginAnalytics {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginAnalytics.class);
+
+    private static final int RETAINED_DAYS = 31;
+
+    /**
+     * One UTC day: this node's sketch, the cluster-wide sketch and the signup counters
+     */
+    static final class DayStats {
+        final HyperLogLog local = new HyperLogLog();
+        final HyperLogLog merged = new HyperLogLog();
+        final ConcurrentHashMap<String, LongAdder> pendingSignups = new ConcurrentHashMap<>();
+        volatile Map<String, Long> persistedSignups = Map.of();
+        volatile boolean dirty;
+
+        Map<String, Long> signups() {
+            Map<String, Long> totals = new TreeMap<>(persistedSignups);
+            pendingSignups.forEach((provider, count) -> totals.merge(provider, count.sum(), Long::sum));
+            return totals;
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${analytics.checkpoint.enabled:true}")
+    private boolean checkpointEnabled;
+
+    @Value("${analytics.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    @Value("${analytics.shutdown-timeout-ms:2000}")
+    private long shutdownTimeoutMs;
+
+    private volatile boolean restored;
+
+    private final ConcurrentHashMap<LocalDate, DayStats> days = new ConcurrentHashMap<>();
+
+    private volatile LoginStatsResponse snapshot = new LoginStatsResponse(true, 0, 0, 0, List.of(), List.of(), null);
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> {
+                recordSignup(event.user().getProvider());
+                recordActivity(event.userId());
+            }
+            case LOGGED_IN -> recordActivity(event.userId());
+            default -> { }
+        }
+    }
+
+    /**
+     * Count the user as active today (logins and token refreshes)
+     */
+    public void recordActivity(String userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        long hash = HyperLogLog.hash(userId);
+        DayStats today = today();
+        // Both sketches must see the value, no short-circuit
+        if (today.local.add(hash) | today.merged.add(hash)) {
+            today.dirty = true;
+        }
+    }
+
+    public void recordSignup(String provider) {
+        if (!enabled) {
+            return;
+        }
+        DayStats today = today();
+        today.pendingSignups.computeIfAbsent(provider != null ? provider : "unknown", p -> new LongAdder()).increment();
+        today.dirty = true;
+    }
+
+    /**
+     * Latest precomputed statistics (at most analytics.refresh-interval-ms old)
+     */
+    public LoginStatsResponse snapshot() {
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.refresh-interval-ms:5000}")
+    public void refreshSnapshot() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        days.keySet().removeIf(day -> day.isBefore(today.minusDays(RETAINED_DAYS - 1)));
+
+        HyperLogLog week = new HyperLogLog();
+        HyperLogLog month = new HyperLogLog();
+        List<DailySignups> signupsByDay = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            LocalDate day = today.minusDays(i);
+            DayStats stats = days.get(day);
+            if (stats == null) {
+                continue;
+            }
+            if (i < 7) {
+                week.merge(stats.merged);
+            }
+            month.merge(stats.merged);
+
+            List<ProviderCount> counts = toProviderCounts(stats.signups());
+            if (!counts.isEmpty()) {
+                signupsByDay.add(new DailySignups(day.toString(), counts));
+            }
+        }
+
+        DayStats todayStats = days.get(today);
+        snapshot = new LoginStatsResponse(
+            true,
+            todayStats != null ? todayStats.merged.estimate() : 0,
+            week.estimate(),
+            month.estimate(),
+            todayStats != null ? toProviderCounts(todayStats.signups()) : List.of(),
+            signupsByDay,
+            LocalDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+        );
+    }
+
+    /**
+     * Rebuild today's and the last 30 days' state from the checkpoints
+     * Merging is idempotent, a failed attempt is simply repeated on the next tick
+     */
+    void restore() {
+        try {
+            mongoTemplate.indexOps(ActivitySketch.class)
+                .createIndex(new Index().on("updatedAt", Sort.Direction.ASC).expire(Duration.ofDays(RETAINED_DAYS + 7)));
+
+            String from = LocalDate.now(ZoneOffset.UTC).minusDays(RETAINED_DAYS - 1).toString();
+            for (ActivitySketch sketch : mongoTemplate.find(Query.query(Criteria.where("day").gte(from)), ActivitySketch.class)) {
+                DayStats stats = days.computeIfAbsent(LocalDate.parse(sketch.getDay()), d -> new DayStats());
+                HyperLogLog restored = HyperLogLog.fromBytes(sketch.getRegisters());
+                stats.merged.merge(restored);
+                if (nodeId.equals(sketch.getNode())) {
+                    stats.local.merge(restored); // keep our own checkpoint growing after a restart
+                }
+            }
+            for (SignupCounts counts : mongoTemplate.find(Query.query(Criteria.where("_id").gte(from)), SignupCounts.class)) {
+                days.computeIfAbsent(LocalDate.parse(counts.getDay()), d -> new DayStats())
+                    .persistedSignups = Map.copyOf(counts.getProviders());
+            }
+            restored = true;
+            log.info("Restored login analytics for {} days", days.size());
+        } catch (Exception e) {
+            log.warn("Could not restore login analytics: {}", e.getMessage());
+        }
+        refreshSnapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        if (!enabled || !checkpointEnabled) {
+            return;
+        }
+        if (!restored) {
+            restore();
+            if (!restored) {
+                return;
+            }
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        days.computeIfAbsent(today, d -> new DayStats());
+        days.forEach((day, stats) -> {
+            // Today is always synced to pick up other nodes' activity
+            if (stats.dirty || day.equals(today)) {
+                checkpointDay(day.toString(), stats);
+            }
+        });
+    }
+
+    /**
+     * Last checkpoint on a virtual thread, waited for at most analytics.shutdown-timeout-ms:
+     * an unreachable MongoDB must not hold up shutdown for its server selection timeout
+     */
+    @PreDestroy
+    public void finalCheckpoint() throws InterruptedException {
+        if (!enabled || !checkpointEnabled) {
+            return;
+        }
+        Thread checkpointer = Thread.ofVirtual().name("analytics-final-checkpoint").start(this::checkpoint);
+        if (!checkpointer.join(Duration.ofMillis(shutdownTimeoutMs))) {
+            log.warn("Final login analytics checkpoint did not finish within {} ms", shutdownTimeoutMs);
+        }
+    }
+
+    private void checkpointDay(String day, DayStats stats) {
+        stats.dirty = false;
+        Map<String, Long> deltas = new HashMap<>();
+        try {
+            mongoTemplate.save(new ActivitySketch(day, nodeId, stats.local.toBytes()));
+
+            Update update = new Update();
+            stats.pendingSignups.forEach((provider, count) -> {
+                long delta = count.sumThenReset();
+                if (delta != 0) {
+                    deltas.put(provider, delta);
+                    update.inc("providers." + provider, delta);
+                }
+            });
+            Query byDay = Query.query(Criteria.where("_id").is(day));
+            SignupCounts counts = deltas.isEmpty()
+                ? mongoTemplate.findOne(byDay, SignupCounts.class)
+                : mongoTemplate.findAndModify(byDay, update, FindAndModifyOptions.options().returnNew(true).upsert(true), SignupCounts.class);
+            deltas.clear();
+            if (counts != null) {
+                stats.persistedSignups = Map.copyOf(counts.getProviders());
+            }
+
+            // Cluster-wide view of the day
+            for (ActivitySketch sketch : mongoTemplate.find(Query.query(Criteria.where("day").is(day)), ActivitySketch.class)) {
+                stats.merged.merge(HyperLogLog.fromBytes(sketch.getRegisters()));
+            }
+        } catch (Exception e) {
+            // Put unsaved deltas back and retry on the next tick
+            deltas.forEach((provider, delta) -> stats.pendingSignups.computeIfAbsent(provider, p -> new LongAdder()).add(delta));
+            stats.dirty = true;
+            log.warn("Login analytics checkpoint for {} failed: {}", day, e.getMessage());
+        }
+    }
+
+    private DayStats today() {
+        return days.computeIfAbsent(LocalDate.now(ZoneOffset.UTC), d -> new DayStats());
+    }
+
+    private static List<ProviderCount> toProviderCounts(Map<String, Long> counts) {
+        List<ProviderCount> result = new ArrayList<>(counts.size());
+        counts.forEach((provider, count) -> {
+            if (count > 0) {
+                result.add(new ProviderCount(provider, count));
+            }
+        });
+        return result;
+    }
+}
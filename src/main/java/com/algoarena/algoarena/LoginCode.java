@@ -0,0 +1,68 @@
+//src/main/java/com/algoarena/algoarena/LoginCode.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Pending one-time login code (cluster mode of the code handoff)
+ * Expired documents are removed by a TTL index on expiresAt
+ */
+@Document(collection = "login_codes")
+public class LoginCode {
+    
+    @Id
+    private String code;
+    
+    private String accessToken;
+    
+    private String refreshToken;
+    
+    private Date expiresAt;
+    
+    // Constructors
+    public LoginCode() {}
+    
+    public LoginCode(String code, String accessToken, String refreshToken, Date expiresAt) {
+        this.code = code;
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters and Setters
+    public String getCode() {
+        return code;
+    }
+    
+    public void setCode(String code) {
+        this.code = code;
+    }
+    
+    public String getAccessToken() {
+        return accessToken;
+    }
+    
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+    
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
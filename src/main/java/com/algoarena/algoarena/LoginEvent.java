@@ -0,0 +1,122 @@
+//src/main/java/com/algoarena/algoarena/LoginEvent.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Audit record of a login, token refresh or logout
+ * Written in batches by LoginEventRecorder; old documents expire via a TTL index on timestamp
+ */
+@Document(collection = "login_events")
+public class LoginEvent {
+    
+    public enum Type {
+        LOGIN,
+        REFRESH,
+        LOGOUT
+    }
+    
+    public enum Outcome {
+        SUCCESS,
+        FAILURE
+    }
+    
+    @Id
+    private String id;
+    
+    private Type type;
+    
+    private Outcome outcome;
+    
+    private String userId; // null when the user could not be identified
+    
+    private String provider;
+    
+    private Date timestamp;
+    
+    private long latencyMs;
+    
+    private String reason; // short failure reason, null on success
+    
+    // Constructors
+    public LoginEvent() {}
+    
+    public LoginEvent(Type type, Outcome outcome, String userId, String provider, Date timestamp, long latencyMs, String reason) {
+        this.type = type;
+        this.outcome = outcome;
+        this.userId = userId;
+        this.provider = provider;
+        this.timestamp = timestamp;
+        this.latencyMs = latencyMs;
+        this.reason = reason;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public Outcome getOutcome() {
+        return outcome;
+    }
+    
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getProvider() {
+        return provider;
+    }
+    
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+    
+    public Date getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+    
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+    
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,195 @@
+//src/main/java/com/algoarena/algoarena/LoginEventRecorder.java
+
+package com.algoarena.algoarena;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records login, refresh and logout events into login_events without slowing down auth requests
+ *
+ * record() only builds the document and offers it to a bounded MpscRingBuffer; when the
+ * buffer is full the event is dropped and counted, the caller never waits. A single writer
+ * thread creates the TTL index, then drains the buffer and persists batches with one
+ * insertMany each; neither startup nor shutdown waits for MongoDB longer than
+ * login-events.shutdown-timeout-ms.
+ */
+@Component
+public class LoginEventRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginEventRecorder.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${login-events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${login-events.buffer-capacity:8192}")
+    private int bufferCapacity;
+
+    @Value("${login-events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${login-events.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${login-events.retention-days:90}")
+    private long retentionDays;
+
+    @Value("${login-events.shutdown-timeout-ms:2000}")
+    private long shutdownTimeoutMs;
+
+    private MpscRingBuffer<LoginEvent> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Counter droppedOverflow;
+    private Counter droppedWriteFailure;
+    private Counter written;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        buffer = new MpscRingBuffer<>(bufferCapacity);
+        droppedOverflow = droppedCounter("overflow");
+        droppedWriteFailure = droppedCounter("write_failure");
+        written = Counter.builder("login.events.written")
+            .description("Login events persisted to login_events")
+            .register(meterRegistry);
+        Gauge.builder("login.events.queued", buffer, MpscRingBuffer::size)
+            .description("Login events waiting for the batch writer")
+            .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "login-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Create the TTL index (auto index creation is off); runs on the writer thread,
+     * events queue up meanwhile
+     */
+    private void ensureTtlIndex() {
+        try {
+            mongoTemplate.indexOps(LoginEvent.class)
+                .createIndex(new Index().on("timestamp", Sort.Direction.ASC).expire(Duration.ofDays(retentionDays)));
+        } catch (Exception e) {
+            log.warn("Could not create TTL index on login_events: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queue an event; latency is measured from startNanos (a System.nanoTime() value) to now
+     */
+    public void record(LoginEvent.Type type, LoginEvent.Outcome outcome, String userId, String provider,
+                       long startNanos, String reason) {
+        if (!enabled) {
+            return;
+        }
+
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        LoginEvent event = new LoginEvent(type, outcome, userId, provider, new Date(), latencyMs, reason);
+        if (!buffer.offer(event)) {
+            droppedOverflow.increment();
+        }
+    }
+
+    public void recordSuccess(LoginEvent.Type type, User user, long startNanos) {
+        record(type, LoginEvent.Outcome.SUCCESS, user.getId(), user.getProvider(), startNanos, null);
+    }
+
+    public void recordFailure(LoginEvent.Type type, String userId, String provider, long startNanos, String reason) {
+        record(type, LoginEvent.Outcome.FAILURE, userId, provider, startNanos, reason);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        // The writer flushes what is left before exiting; it is a daemon, a stalled insert is abandoned
+        if (!writer.join(Duration.ofMillis(shutdownTimeoutMs))) {
+            log.warn("Login event writer did not finish within {} ms, {} queued events lost", shutdownTimeoutMs, buffer.size());
+        }
+    }
+
+    private void writeLoop() {
+        List<LoginEvent> batch = new ArrayList<>(batchSize);
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        long idleParkNanos = Math.min(flushIntervalNanos, TimeUnit.MILLISECONDS.toNanos(50));
+        long batchStartedAt = 0;
+
+        ensureTtlIndex();
+        while (running) {
+            boolean wasEmpty = batch.isEmpty();
+            int drained = buffer.drain(batch::add, batchSize - batch.size());
+            if (wasEmpty && !batch.isEmpty()) {
+                batchStartedAt = System.nanoTime();
+            }
+
+            // Write full batches right away, partial ones once they are flushIntervalMs old
+            if (batch.size() >= batchSize || (!batch.isEmpty() && System.nanoTime() - batchStartedAt >= flushIntervalNanos)) {
+                write(batch);
+            } else if (drained == 0) {
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+
+        // Shutdown: flush everything still queued
+        do {
+            buffer.drain(batch::add, batchSize - batch.size());
+            write(batch);
+        } while (buffer.size() > 0);
+    }
+
+    private void write(List<LoginEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.insert(batch, LoginEvent.class);
+            written.increment(batch.size());
+        } catch (Exception e) {
+            // No retries: the buffer keeps filling meanwhile, and these are audit records, not state
+            droppedWriteFailure.increment(batch.size());
+            log.warn("Dropped {} login events, insert failed: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private Counter droppedCounter(String reason) {
+        return Counter.builder("login.events.dropped")
+            .description("Login events that were not persisted")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
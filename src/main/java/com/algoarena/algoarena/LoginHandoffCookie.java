@@ -0,0 +1,53 @@
+//src/main/java/com/algoarena/algoarena/LoginHandoffCookie.java
+
+package com.algoarena.algoarena;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Post-login handoff without HttpSession
+ * The success handler stores the logged-in user's id in a signed cookie,
+ * endpoints that used to read "currentUser" from the session resolve it from here
+ */
+@Component
+@Profile("!reactive")
+public class LoginHandoffCookie {
+
+    public static final String COOKIE_NAME = "algoarena_login";
+
+    private static final Duration COOKIE_TTL = Duration.ofMinutes(10);
+
+    @Autowired
+    private SignedCookieCodec cookieCodec;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Remember the freshly logged-in user for the follow-up requests
+     */
+    public void issue(HttpServletResponse response, User user) {
+        cookieCodec.write(response, COOKIE_NAME, user.getId(), COOKIE_TTL);
+    }
+
+    /**
+     * Resolve the user from a valid handoff cookie (empty if missing, tampered or expired)
+     */
+    public Optional<User> resolve(HttpServletRequest request) {
+        return cookieCodec.read(request, COOKIE_NAME).flatMap(userService::findById);
+    }
+
+    /**
+     * Drop the handoff cookie (used on logout)
+     */
+    public void clear(HttpServletResponse response) {
+        cookieCodec.clear(response, COOKIE_NAME);
+    }
+}
@@ -0,0 +1,75 @@
+//src/main/java/com/algoarena/algoarena/MongoAuthorizationCodeStore.java
+
+package com.algoarena.algoarena;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Cluster-wide code store (auth.handoff.store=mongo)
+ * findAndRemove on the _id makes redemption a single atomic, indexed operation
+ */
+@Component
+@ConditionalOnProperty(name = "auth.handoff.store", havingValue = "mongo")
+public class MongoAuthorizationCodeStore implements AuthorizationCodeStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoAuthorizationCodeStore.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${auth.handoff.code-ttl-seconds:60}")
+    private long codeTtlSeconds;
+
+    /**
+     * Create the TTL index once the app is up (auto index creation is off)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureTtlIndex() {
+        try {
+            mongoTemplate.indexOps(LoginCode.class)
+                .createIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO));
+        } catch (Exception e) {
+            log.warn("Could not create TTL index on login_codes: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String issue(IssuedTokens tokens) {
+        String code = AuthorizationCodeStore.newCode(random);
+        Date expiresAt = new Date(System.currentTimeMillis() + codeTtlSeconds * 1000);
+        mongoTemplate.insert(new LoginCode(code, tokens.accessToken(), tokens.refreshToken(), expiresAt));
+        return code;
+    }
+
+    @Override
+    public Optional<IssuedTokens> redeem(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        LoginCode loginCode = mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(code)), LoginCode.class);
+        // The TTL monitor runs about once a minute, so check the deadline ourselves
+        if (loginCode == null || loginCode.getExpiresAt().before(new Date())) {
+            return Optional.empty();
+        }
+        return Optional.of(new IssuedTokens(loginCode.getAccessToken(), loginCode.getRefreshToken()));
+    }
+}
@@ -0,0 +1,44 @@
+//src/main/java/com/algoarena/algoarena/MongoClientConfig.java
+
+package com.algoarena.algoarena;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.connection.TransportSettings;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One Netty event loop group for both MongoDB clients, the sync one and the reactive one
+ *
+ * With the reactive driver on the classpath, Boot's Netty driver customizer runs once per
+ * client and creates a group each time, but only shuts down the last one: the other group's
+ * non-daemon threads outlive the context and keep the JVM alive after main() returns (the
+ * LoadTest and benchmark harnesses never exit). Settings that already carry a transport turn
+ * that customizer into a no-op, so the group is created here and shut down with the context,
+ * after the clients that use it.
+ */
+@Configuration
+public class MongoClientConfig implements DisposableBean {
+
+    // Not a bean: an EventLoopGroup is a ScheduledExecutorService, @Scheduled would pick it up
+    private final EventLoopGroup eventLoopGroup = new NioEventLoopGroup();
+
+    /**
+     * Replaces Boot's empty default settings; connection properties and the other customizers
+     * (e.g. TracingConfig's command listener) are still applied on top by each client
+     */
+    @Bean
+    public MongoClientSettings mongoClientSettings() {
+        return MongoClientSettings.builder()
+            .transportSettings(TransportSettings.nettyBuilder().eventLoopGroup(eventLoopGroup).build())
+            .build();
+    }
+
+    @Override
+    public void destroy() {
+        eventLoopGroup.shutdownGracefully().awaitUninterruptibly();
+    }
+}
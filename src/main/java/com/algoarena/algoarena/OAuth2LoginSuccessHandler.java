@@ -5,7 +5,10 @@ package com.algoarena.algoarena;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -13,24 +16,36 @@ import org.springframework.security.web.authentication.AuthenticationSuccessHand
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 
 @Component
+@Profile("!reactive")
 public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
     
+    private static final Logger log = LoggerFactory.getLogger(OAuth2LoginSuccessHandler.class);
+    
     @Autowired
     private UserService userService;
     
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private LoginHandoffCookie loginHandoffCookie;
+    
+    @Autowired
+    private AuthorizationCodeStore authorizationCodeStore;
+    
+    @Autowired
+    private LoginEventRecorder loginEventRecorder;
+    
     @Override
     public void onAuthenticationSuccess(
             HttpServletRequest request, 
             HttpServletResponse response, 
             Authentication authentication) throws IOException, ServletException {
         
+        long startNanos = System.nanoTime();
+        
         // Cast to OAuth2AuthenticationToken to get provider info
         OAuth2AuthenticationToken oauth2Token = (OAuth2AuthenticationToken) authentication;
         OAuth2User oauth2User = oauth2Token.getPrincipal();
@@ -40,42 +55,61 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
             // Process the user (save to database or update)
             User user = userService.processOAuth2User(oauth2User, provider);
             
-            // Generate JWT tokens
-            String accessToken = jwtUtil.generateAccessToken(user);
-            String refreshToken = jwtUtil.generateRefreshToken(user);
+            // Generate JWT tokens and park them behind a one-time code
+            String code = authorizationCodeStore.issue(new AuthorizationCodeStore.IssuedTokens(
+                jwtUtil.generateAccessToken(user),
+                jwtUtil.generateRefreshToken(user)
+            ));
             
-            // Log successful user processing
-            System.out.println("✅ User processed successfully: " + user.toString());
+            loginEventRecorder.recordSuccess(LoginEvent.Type.LOGIN, user, startNanos);
             
-            // Store user info in session (for fallback)
-            request.getSession().setAttribute("currentUser", user);
+            // Log successful user processing (ids only, the entity carries personal data)
+            log.atInfo()
+                .setMessage("OAuth2 login successful")
+                .addKeyValue("event", "oauth2_login_succeeded")
+                .addKeyValue("userId", user.getId())
+                .addKeyValue("provider", provider)
+                .log();
             
-            // Get frontend URL from environment or use default
-            String frontendBaseUrl = System.getenv("FRONTEND_URL");
-            if (frontendBaseUrl == null) {
-                frontendBaseUrl = "http://localhost:3000";
-            }
+            // Remember the user in a signed cookie (for fallback), no HttpSession involved
+            loginHandoffCookie.issue(response, user);
             
-            // Redirect to Next.js frontend with tokens as URL parameters
-            String frontendUrl = frontendBaseUrl + "/auth/callback" +
-                "?accessToken=" + URLEncoder.encode(accessToken, StandardCharsets.UTF_8) +
-                "&refreshToken=" + URLEncoder.encode(refreshToken, StandardCharsets.UTF_8) +
-                "&tokenType=Bearer" +
-                "&expiresIn=86400";
+            // Redirect to Next.js frontend with only the code; it POSTs it to /api/auth/exchange
+            // (tokens in the URL would end up in proxy logs and browser history)
+            String frontendUrl = frontendBaseUrl() + "/auth/callback?code=" + code;
             
             response.sendRedirect(frontendUrl);
             
+        } catch (AuthorizationCodeStore.CapacityExceededException e) {
+            // Overload rather than a failure of this login: the frontend can offer a retry
+            log.atWarn()
+                .setMessage("OAuth2 login rejected, authorization code store is full")
+                .addKeyValue("event", "oauth2_login_rejected")
+                .addKeyValue("provider", provider)
+                .log();
+            
+            loginEventRecorder.recordFailure(LoginEvent.Type.LOGIN, null, provider, startNanos, "code_store_full");
+            
+            response.sendRedirect(frontendBaseUrl() + "?error=login_busy");
+            
         } catch (Exception e) {
             // Log error and redirect to error page
-            System.err.println("❌ Error processing OAuth2 user: " + e.getMessage());
-            e.printStackTrace();
+            log.atError()
+                .setMessage("Error processing OAuth2 user")
+                .addKeyValue("event", "oauth2_login_failed")
+                .addKeyValue("provider", provider)
+                .setCause(e)
+                .log();
             
-            String frontendBaseUrl = System.getenv("FRONTEND_URL");
-            if (frontendBaseUrl == null) {
-                frontendBaseUrl = "http://localhost:3000";
-            }
+            loginEventRecorder.recordFailure(LoginEvent.Type.LOGIN, null, provider, startNanos, e.getClass().getSimpleName());
             
-            response.sendRedirect(frontendBaseUrl + "?error=auth_failed");
+            response.sendRedirect(frontendBaseUrl() + "?error=auth_failed");
         }
     }
+    
+    // Get frontend URL from environment or use default
+    private static String frontendBaseUrl() {
+        String frontendBaseUrl = System.getenv("FRONTEND_URL");
+        return frontendBaseUrl != null ? frontendBaseUrl : "http://localhost:3000";
+    }
 }
\ No newline at end of file
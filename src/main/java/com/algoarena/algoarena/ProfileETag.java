@@ -0,0 +1,79 @@
+//src/main/java/com/algoarena/algoarena/ProfileETag.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Strong ETags for the per-user profile endpoints
+ *
+ * Format: "<userId>.<profileVersion>.<variant>", where variant is a hash of the Accept header
+ * (JSON, CBOR, Smile and protobuf bodies of the same version are different representations).
+ * The version is bumped by every UserService mutation, so no body hashing is needed.
+ */
+public final class ProfileETag {
+
+    private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.AUTHORIZATION;
+
+    private ProfileETag() {}
+
+    public static String of(User user, String accept) {
+        return of(user.getId(), user.getProfileVersion(), accept);
+    }
+
+    public static String of(UserRepository.ProfileVersionView view, String accept) {
+        return of(view.getId(), view.getProfileVersion() != null ? view.getProfileVersion() : 0L, accept);
+    }
+
+    public static String of(String userId, long version, String accept) {
+        String normalizedAccept = accept == null || accept.isBlank() ? "*/*" : accept.trim();
+        return "\"" + userId + "." + version + "." + Integer.toHexString(normalizedAccept.hashCode()) + "\"";
+    }
+
+    /**
+     * If-None-Match check (weak comparison, as RFC 9110 requires for this header)
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 200 response carrying the ETag and caching headers
+     */
+    public static ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .header(HttpHeaders.VARY, VARY);
+    }
+
+    /**
+     * 304 response, no body is built or serialized
+     */
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .header(HttpHeaders.VARY, VARY)
+            .build();
+    }
+}
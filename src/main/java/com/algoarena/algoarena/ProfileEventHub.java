@@ -0,0 +1,320 @@
+//src/main/java/com/algoarena/algoarena/ProfileEventHub.java
+
+package com.algoarena.algoarena;
+
+import com.algoarena.algoarena.ApiResponses.MessageResponse;
+import com.algoarena.algoarena.ApiResponses.UserProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fan-out of UserChangedEvents to the per-user SSE streams (/api/protected/events)
+ *
+ * Idle streams are plain async servlet requests, no thread is parked per connection.
+ * Writes happen on virtual threads, one drain at a time per stream. Backpressure is by
+ * coalescing: a stream holds at most one pending profile (the newest version wins), so a
+ * slow client never queues more than one event and never slows down the publisher.
+ * Deletion and revocation are terminal: they are sent last and close the stream.
+ * sse.max-connections is enforced here, below the server's own connection limit, so open
+ * streams can never take every connection from regular requests.
+ */
+@Component
+@Profile("!reactive")
+public class ProfileEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileEventHub.class);
+
+    /**
+     * A profile snapshot waiting to be written, tagged with its profileVersion
+     */
+    private record PendingProfile(long version, UserProfile profile) {}
+
+    private final ConcurrentHashMap<String, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter coalesced;
+
+    private final int maxConnections;
+    private final int maxStreamsPerUser;
+    private final long timeoutMs;
+    private final long heartbeatIntervalNanos;
+
+    public ProfileEventHub(MeterRegistry meterRegistry,
+                           @Value("${sse.max-connections:6144}") int maxConnections,
+                           @Value("${sse.max-streams-per-user:5}") int maxStreamsPerUser,
+                           @Value("${sse.timeout-ms:3600000}") long timeoutMs,
+                           @Value("${sse.heartbeat-interval-ms:25000}") long heartbeatIntervalMs) {
+        this.maxConnections = maxConnections;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatIntervalNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatIntervalMs);
+
+        Gauge.builder("sse.connections", connections, AtomicInteger::get)
+            .description("Open profile event streams")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("sse.events.coalesced")
+            .description("Profile events replaced by a newer one before a slow client received them")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for the user, or null when the server is at its connection limit
+     * lastEventId is the profileVersion the client already has (SSE Last-Event-ID)
+     */
+    public SseEmitter subscribe(User user, String lastEventId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return null;
+        }
+
+        Subscriber subscriber = new Subscriber(user.getId(), new SseEmitter(timeoutMs), parseVersion(lastEventId));
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(() -> {
+            // Complete cleanly so EventSource reconnects instead of seeing a 503
+            subscriber.close();
+            subscriber.emitter.complete();
+        });
+        subscriber.emitter.onError(e -> subscriber.close());
+
+        Subscriber evicted = register(subscriber);
+        if (evicted != null) {
+            evicted.terminate("replaced", "Too many open streams for this user");
+        }
+
+        // Current state first, skipped when the client's Last-Event-ID is already this version
+        subscriber.offer(new PendingProfile(user.getProfileVersion(), UserMapper.toProfile(user)));
+        return subscriber.emitter;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        Set<Subscriber> subscribers = subscribersByUser.get(event.userId());
+        if (subscribers == null) {
+            return;
+        }
+
+        switch (event.type()) {
+            case DELETED -> subscribers.forEach(s -> s.terminate("deleted", "Account deleted"));
+            case TOKENS_REVOKED -> subscribers.forEach(s -> s.terminate("revoked", "Sessions revoked, please login again"));
+            default -> {
+                // Mapped once here, shared by all of the user's streams
+                PendingProfile update = new PendingProfile(event.user().getProfileVersion(), UserMapper.toProfile(event.user()));
+                subscribers.forEach(s -> s.offer(update));
+            }
+        }
+    }
+
+    /**
+     * Changes made on other nodes (UserChangeStream); this node's own changes arrive here as
+     * well and are dropped by the version check in the drain task
+     */
+    @EventListener
+    public void onUserChangeStream(UserChangeStreamEvent event) {
+        Set<Subscriber> subscribers = event.userId() != null ? subscribersByUser.get(event.userId()) : null;
+        if (subscribers == null) {
+            return;
+        }
+
+        switch (event.type()) {
+            case DELETED -> subscribers.forEach(s -> s.terminate("deleted", "Account deleted"));
+            case UPDATED -> {
+                PendingProfile update = new PendingProfile(event.user().getProfileVersion(), UserMapper.toProfile(event.user()));
+                subscribers.forEach(s -> s.offer(update));
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * Keep idle streams alive through proxies and detect dead clients
+     * Only streams that wrote nothing for a full interval get a heartbeat
+     */
+    @Scheduled(fixedDelayString = "${sse.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+            for (Subscriber subscriber : subscribers) {
+                if (now - subscriber.lastWriteNanos >= heartbeatIntervalNanos) {
+                    subscriber.heartbeatDue = true;
+                    subscriber.schedule();
+                }
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribersByUser.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    /**
+     * Adds the subscriber, returning the user's oldest stream if the per-user limit is exceeded
+     */
+    private Subscriber register(Subscriber subscriber) {
+        AtomicReference<Subscriber> evicted = new AtomicReference<>();
+        subscribersByUser.compute(subscriber.userId, (userId, existing) -> {
+            Set<Subscriber> subscribers = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            if (subscribers.size() >= maxStreamsPerUser) {
+                subscribers.stream()
+                    .min((a, b) -> Long.compare(a.connectedAtNanos, b.connectedAtNanos))
+                    .ifPresent(oldest -> {
+                        subscribers.remove(oldest);
+                        evicted.set(oldest);
+                    });
+            }
+            subscribers.add(subscriber);
+            return subscribers;
+        });
+        return evicted.get();
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscribersByUser.computeIfPresent(subscriber.userId, (userId, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private static long parseVersion(String lastEventId) {
+        try {
+            return lastEventId != null ? Long.parseLong(lastEventId.trim()) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * One open stream; state is handed to the drain task through atomics, the drain task
+     * is the only writer to the emitter
+     */
+    private final class Subscriber implements Runnable {
+
+        private final String userId;
+        private final SseEmitter emitter;
+        private final long connectedAtNanos = System.nanoTime();
+
+        private final AtomicReference<PendingProfile> pendingProfile = new AtomicReference<>();
+        private final AtomicReference<SseEmitter.SseEventBuilder> terminalEvent = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private volatile boolean heartbeatDue;
+        private volatile long lastWriteNanos = System.nanoTime();
+        private long lastSentVersion; // only touched by the drain task
+
+        Subscriber(String userId, SseEmitter emitter, long lastSentVersion) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.lastSentVersion = lastSentVersion;
+        }
+
+        void offer(PendingProfile update) {
+            PendingProfile previous = pendingProfile.getAndAccumulate(update,
+                (current, next) -> current == null || next.version() >= current.version() ? next : current);
+            if (previous != null) {
+                coalesced.increment();
+            }
+            schedule();
+        }
+
+        void terminate(String eventName, String message) {
+            terminalEvent.compareAndSet(null, SseEmitter.event()
+                .name(eventName)
+                .data(new MessageResponse(false, message)));
+            schedule();
+        }
+
+        void schedule() {
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RuntimeException e) {
+                    scheduled.set(false); // executor shut down
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                do {
+                    drain();
+                    scheduled.set(false);
+                    // Re-check: work offered after drain() but before the flag was cleared
+                } while (hasWork() && scheduled.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                log.debug("Closing event stream for user {}: {}", userId, e.getMessage());
+                scheduled.set(false);
+                emitter.completeWithError(e);
+                close();
+            }
+        }
+
+        private boolean hasWork() {
+            return !closed.get() && (terminalEvent.get() != null || pendingProfile.get() != null || heartbeatDue);
+        }
+
+        private void drain() throws IOException {
+            if (closed.get()) {
+                return;
+            }
+
+            SseEmitter.SseEventBuilder terminal = terminalEvent.get();
+            if (terminal != null) {
+                emitter.send(terminal);
+                emitter.complete();
+                close();
+                return;
+            }
+
+            PendingProfile update = pendingProfile.getAndSet(null);
+            if (update != null && update.version() > lastSentVersion) {
+                emitter.send(SseEmitter.event()
+                    .id(Long.toString(update.version()))
+                    .name("profile")
+                    .data(update.profile()));
+                lastSentVersion = update.version();
+                lastWriteNanos = System.nanoTime();
+            }
+
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                lastWriteNanos = System.nanoTime();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister(this);
+                connections.decrementAndGet();
+            }
+        }
+    }
+}
@@ -3,14 +3,30 @@
 package com.algoarena.algoarena;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.algoarena.algoarena.ApiResponses.ErrorResponse;
+import com.algoarena.algoarena.ApiResponses.LoginStatsResponse;
+import com.algoarena.algoarena.ApiResponses.UserStatsResponse;
+import com.algoarena.algoarena.ApiResponses.TracesResponse;
+import com.algoarena.algoarena.ApiResponses.JfrStatusResponse;
+import com.algoarena.algoarena.ApiResponses.MessageResponse;
+import com.algoarena.algoarena.ApiResponses.ProfileResponse;
+import com.algoarena.algoarena.ApiResponses.ProfileUpdateResponse;
+import com.algoarena.algoarena.ApiResponses.UserListResponse;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/protected")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"}) // Allow Next.js frontend
 public class ProtectedController {
@@ -21,42 +37,55 @@ public class ProtectedController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ProfileEventHub profileEventHub;
+    
+    @Autowired
+    private LoginAnalytics loginAnalytics;
+    
+    @Autowired
+    private UserStatistics userStatistics;
+    
+    @Autowired
+    private RequestTracing requestTracing;
+    
+    @Autowired
+    private FlightRecorderProfiler flightRecorderProfiler;
+    
     /**
      * Get user profile - requires valid JWT token
      */
     @GetMapping("/profile")
-    public ResponseEntity<?> getUserProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getUserProfile(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @AuthenticationPrincipal User principal) {
         try {
+            // Conditional GET: JwtAuthenticationFilter already loaded the user, so skip the reload and the body
+            if (ifNoneMatch != null && principal != null) {
+                String etag = ProfileETag.of(principal, accept);
+                if (ProfileETag.matches(ifNoneMatch, etag)) {
+                    return ProfileETag.notModified(etag);
+                }
+            }
+            
             // Validate JWT token and get user
             User user = validateTokenAndGetUser(authHeader);
             if (user == null) {
-                return ResponseEntity.status(401).body(Map.of(
-                    "error", "Unauthorized",
-                    "message", "Invalid or expired token"
+                return ResponseEntity.status(401).body(new ErrorResponse(
+                    "Unauthorized",
+                    "Invalid or expired token"
                 ));
             }
             
             // Return user profile
-            Map<String, Object> profile = Map.of(
-                "id", user.getId(),
-                "name", user.getName(),
-                "email", user.getEmail() != null ? user.getEmail() : "",
-                "username", user.getUsername(),
-                "provider", user.getProvider(),
-                "avatarUrl", user.getAvatarUrl() != null ? user.getAvatarUrl() : "",
-                "createdAt", user.getCreatedAt(),
-                "lastLoginAt", user.getLastLoginAt()
-            );
-            
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "user", profile
-            ));
+            return ProfileETag.ok(ProfileETag.of(user, accept)).body(new ProfileResponse(true, UserMapper.toProfile(user)));
             
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of(
-                "error", "Internal server error",
-                "message", e.getMessage()
+            return ResponseEntity.status(500).body(new ErrorResponse(
+                "Internal server error",
+                e.getMessage()
             ));
         }
     }
@@ -72,9 +101,9 @@ public class ProtectedController {
             // Validate JWT token and get user
             User user = validateTokenAndGetUser(authHeader);
             if (user == null) {
-                return ResponseEntity.status(401).body(Map.of(
-                    "error", "Unauthorized",
-                    "message", "Invalid or expired token"
+                return ResponseEntity.status(401).body(new ErrorResponse(
+                    "Unauthorized",
+                    "Invalid or expired token"
                 ));
             }
             
@@ -85,9 +114,9 @@ public class ProtectedController {
             // Validate that at least one field is provided
             if ((newName == null || newName.trim().isEmpty()) && 
                 (newUsername == null || newUsername.trim().isEmpty())) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "No valid fields to update",
-                    "message", "Provide 'name' or 'username' to update"
+                return ResponseEntity.badRequest().body(new ErrorResponse(
+                    "No valid fields to update",
+                    "Provide 'name' or 'username' to update"
                 ));
             }
             
@@ -95,30 +124,22 @@ public class ProtectedController {
             Optional<User> updatedUserOpt = userService.updateUserById(user.getId(), newName, newUsername);
             
             if (updatedUserOpt.isPresent()) {
-                User updatedUser = updatedUserOpt.get();
-                
-                return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "message", "Profile updated successfully",
-                    "user", Map.of(
-                        "id", updatedUser.getId(),
-                        "name", updatedUser.getName(),
-                        "username", updatedUser.getUsername(),
-                        "email", updatedUser.getEmail() != null ? updatedUser.getEmail() : "",
-                        "lastLoginAt", updatedUser.getLastLoginAt()
-                    )
+                return ResponseEntity.ok(new ProfileUpdateResponse(
+                    true,
+                    "Profile updated successfully",
+                    UserMapper.toUpdated(updatedUserOpt.get())
                 ));
             } else {
-                return ResponseEntity.status(404).body(Map.of(
-                    "error", "User not found",
-                    "message", "User could not be updated"
+                return ResponseEntity.status(404).body(new ErrorResponse(
+                    "User not found",
+                    "User could not be updated"
                 ));
             }
             
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of(
-                "error", "Internal server error",
-                "message", e.getMessage()
+            return ResponseEntity.status(500).body(new ErrorResponse(
+                "Internal server error",
+                e.getMessage()
             ));
         }
     }
@@ -132,40 +153,18 @@ public class ProtectedController {
             // Validate JWT token and get user
             User user = validateTokenAndGetUser(authHeader);
             if (user == null) {
-                return ResponseEntity.status(401).body(Map.of(
-                    "error", "Unauthorized",
-                    "message", "Invalid or expired token"
+                return ResponseEntity.status(401).body(new ErrorResponse(
+                    "Unauthorized",
+                    "Invalid or expired token"
                 ));
             }
             
-            // Prepare dashboard data
-            Map<String, Object> dashboardData = new HashMap<>();
-            dashboardData.put("welcomeMessage", "Welcome back, " + user.getName() + "!");
-            dashboardData.put("userStats", Map.of(
-                "totalLogins", "N/A", // You can track this later
-                "accountAge", "Member since " + user.getCreatedAt().toLocalDate(),
-                "provider", "Signed in with " + user.getProvider()
-            ));
-            dashboardData.put("quickActions", new String[]{
-                "View Profile",
-                "Update Settings", 
-                "View Activity",
-                "Logout"
-            });
-            
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "data", dashboardData,
-                "user", Map.of(
-                    "name", user.getName(),
-                    "avatarUrl", user.getAvatarUrl() != null ? user.getAvatarUrl() : ""
-                )
-            ));
+            return ResponseEntity.ok(UserMapper.toDashboard(user));
             
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of(
-                "error", "Internal server error",
-                "message", e.getMessage()
+            return ResponseEntity.status(500).body(new ErrorResponse(
+                "Internal server error",
+                e.getMessage()
             ));
         }
     }
@@ -179,27 +178,143 @@ public class ProtectedController {
             // Validate JWT token and get user
             User user = validateTokenAndGetUser(authHeader);
             if (user == null) {
-                return ResponseEntity.status(401).body(Map.of(
-                    "error", "Unauthorized",
-                    "message", "Invalid or expired token"
+                return ResponseEntity.status(401).body(new ErrorResponse(
+                    "Unauthorized",
+                    "Invalid or expired token"
                 ));
             }
             
             // Get all users (in a real app, you'd check if user is admin)
             Iterable<User> allUsers = userService.getAllUsers();
             
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "users", allUsers,
-                "requestedBy", user.getName()
-            ));
+            return ResponseEntity.ok(new UserListResponse(true, UserMapper.toAdminViews(allUsers), user.getName()));
             
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of(
-                "error", "Internal server error",
-                "message", e.getMessage()
+            return ResponseEntity.status(500).body(new ErrorResponse(
+                "Internal server error",
+                e.getMessage()
+            ));
+        }
+    }
+    
+    /**
+     * Admin endpoint - login statistics (precomputed by LoginAnalytics, no database access)
+     */
+    @GetMapping("/admin/stats/logins")
+    public ResponseEntity<LoginStatsResponse> getLoginStats() {
+        // Authentication is enforced by the security chain for /api/protected/**
+        return ResponseEntity.ok(loginAnalytics.snapshot());
+    }
+    
+    /**
+     * Admin endpoint - user base statistics (incremental counters, no collection scan)
+     * activeDays optionally adds "active in the last N days" for N up to 90
+     */
+    @GetMapping("/admin/stats/users")
+    public ResponseEntity<UserStatsResponse> getUserStats(@RequestParam(required = false) Integer activeDays) {
+        return ResponseEntity.ok(userStatistics.snapshot(activeDays));
+    }
+    
+    /**
+     * Admin endpoint - slowest recent requests with their spans (in-memory trace buffer)
+     * Look a trace up by the X-Request-Id the client received
+     */
+    @GetMapping("/admin/traces/slowest")
+    public ResponseEntity<TracesResponse> getSlowestTraces(@RequestParam(defaultValue = "20") int limit) {
+        int capped = Math.max(1, Math.min(limit, 200));
+        return ResponseEntity.ok(new TracesResponse(true, requestTracing.capacity(), requestTracing.slowest(capped)));
+    }
+    
+    /**
+     * Admin endpoint - JFR recording state and the dumps kept on disk
+     */
+    @GetMapping("/admin/jfr")
+    public ResponseEntity<JfrStatusResponse> getJfrStatus() {
+        return ResponseEntity.ok(flightRecorderProfiler.status());
+    }
+    
+    /**
+     * Admin endpoint - start a JFR recording ("profile" settings) that stops itself after durationSeconds
+     */
+    @PostMapping("/admin/jfr/start")
+    public ResponseEntity<?> startJfrRecording(@RequestParam(defaultValue = "60") long durationSeconds) {
+        try {
+            return ResponseEntity.ok(flightRecorderProfiler.start(durationSeconds));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(new ErrorResponse("Conflict", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(new ErrorResponse(
+                "Internal server error",
+                e.getMessage()
+            ));
+        }
+    }
+    
+    /**
+     * Admin endpoint - stop the recording, dump it and return hot methods and allocation sites
+     */
+    @PostMapping("/admin/jfr/stop")
+    public ResponseEntity<?> stopJfrRecording() {
+        try {
+            return ResponseEntity.ok(flightRecorderProfiler.stop());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(new ErrorResponse("Conflict", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(new ErrorResponse(
+                "Internal server error",
+                e.getMessage()
+            ));
+        }
+    }
+    
+    /**
+     * Server-Sent Events stream of the user's profile changes (replaces polling /api/auth/me)
+     *
+     * Events: "profile" (id = profileVersion, data = same body as /api/auth/me), then at most
+     * one of "deleted", "revoked" or "replaced" before the stream closes.
+     * Needs the Authorization header, so browsers should use a fetch-based EventSource.
+     * Reconnects send Last-Event-ID, an unchanged profile is not sent again.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @AuthenticationPrincipal User principal,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        SseEmitter emitter = profileEventHub.subscribe(principal, lastEventId);
+        if (emitter == null) {
+            // Connection limit reached, EventSource retries on its own
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        
+        return ResponseEntity.ok()
+            .header("X-Accel-Buffering", "no") // Don't let nginx buffer the stream
+            .body(emitter);
+    }
+    
+    /**
+     * Revoke every token issued to the current user so far, this one included
+     * Open event streams receive a "revoked" event and close
+     */
+    @PostMapping("/sessions/revoke")
+    public ResponseEntity<?> revokeSessions(@AuthenticationPrincipal User principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(new ErrorResponse(
+                "Unauthorized",
+                "Invalid or expired token"
+            ));
+        }
+        
+        if (userService.revokeTokens(principal.getId()).isEmpty()) {
+            return ResponseEntity.status(404).body(new ErrorResponse(
+                "User not found",
+                "User could not be updated"
             ));
         }
+        
+        return ResponseEntity.ok(new MessageResponse(true, "All sessions revoked, please login again"));
     }
     
     /**
@@ -220,7 +335,9 @@ public class ProtectedController {
             String providerId = jwtUtil.extractUsername(token);
             Optional<User> userOpt = userService.findByProviderId(providerId);
             
-            return userOpt.orElse(null);
+            return userOpt
+                .filter(user -> !jwtUtil.isRevoked(token, user.getTokensRevokedAt()))
+                .orElse(null);
             
         } catch (Exception e) {
             return null;
@@ -0,0 +1,51 @@
+//src/main/java/com/algoarena/algoarena/ProtobufResponseConverter.java
+
+package com.algoarena.algoarena;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Type;
+
+/**
+ * Writes ApiResponses records as protobuf using the schemas published under /api/schema
+ * Write-only: request bodies stay JSON.
+ *
+ * Deliberately not a bean, Boot would put bean converters ahead of JSON and make
+ * protobuf the pick for "Accept: *&#47;*". BinaryContentConfig appends it instead.
+ */
+public class ProtobufResponseConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+    public static final MediaType PROTOBUF_STANDARD = new MediaType("application", "protobuf");
+
+    private final ProtobufSchemas schemas;
+
+    public ProtobufResponseConverter(ProtobufSchemas schemas) {
+        super(schemas.getMapper(), PROTOBUF, PROTOBUF_STANDARD);
+        this.schemas = schemas;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return schemas.schemaFor(clazz) != null && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, @Nullable MediaType contentType) {
+        return writer.with(schemas.schemaFor(javaType.getRawClass()));
+    }
+}
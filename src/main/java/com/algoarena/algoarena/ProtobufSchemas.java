@@ -0,0 +1,62 @@
+//src/main/java/com/algoarena/algoarena/ProtobufSchemas.java
+
+package com.algoarena.algoarena;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Protobuf schemas for the ApiResponses records
+ * Generated once at startup (schema generation walks the whole type graph) and
+ * shared by ProtobufResponseConverter and the published .proto files
+ */
+@Component
+public class ProtobufSchemas {
+
+    private final ProtobufMapper mapper = new ProtobufMapper();
+    private final Map<Class<?>, ProtobufSchema> schemasByType = new ConcurrentHashMap<>();
+    private final Map<String, String> sourcesByName = new TreeMap<>();
+
+    public ProtobufSchemas() throws JsonMappingException {
+        mapper.registerModule(new BlackbirdModule());
+
+        for (Class<?> type : ApiResponses.class.getDeclaredClasses()) {
+            if (type.isRecord()) {
+                ProtobufSchema schema = mapper.generateSchemaFor(type);
+                schemasByType.put(type, schema);
+                sourcesByName.put(type.getSimpleName(), schema.getSource().toString());
+            }
+        }
+    }
+
+    public ProtobufMapper getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Schema for a response type, null when the type is not a published response
+     */
+    public ProtobufSchema schemaFor(Class<?> type) {
+        return schemasByType.get(type);
+    }
+
+    /**
+     * .proto source for a response type by its simple name (e.g. "ProfileResponse")
+     */
+    public Optional<String> source(String typeName) {
+        return Optional.ofNullable(sourcesByName.get(typeName));
+    }
+
+    public Iterable<String> typeNames() {
+        return Collections.unmodifiableSet(sourcesByName.keySet());
+    }
+}
@@ -0,0 +1,64 @@
+//src/main/java/com/algoarena/algoarena/RateLimitFilter.java
+
+package com.algoarena.algoarena;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Answers 429 for over-limit callers of the public auth endpoints
+ * Ordered ahead of the Spring Security chain, so rejected requests never reach
+ * JWT parsing or MongoDB
+ */
+@Component
+@Profile("!reactive")
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String TOO_MANY_REQUESTS_BODY =
+        "{\"error\":\"Too many requests\",\"message\":\"Rate limit exceeded, please retry later\"}";
+
+    @Autowired
+    private AuthRateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        // Bearer credential (when sent) is keyed by a digest of the raw token:
+        // its subject cannot be trusted before the signature check, and a forged
+        // "sub" must not be able to drain a real user's bucket
+        String authHeader = request.getHeader("Authorization");
+        String subjectKey = authHeader != null && authHeader.startsWith("Bearer ")
+            ? AuthRateLimiter.credentialKey(authHeader.substring(7))
+            : null;
+
+        AuthRateLimiter.Decision decision = rateLimiter.check(request.getRequestURI(), request.getRemoteAddr(), subjectKey);
+
+        if (!decision.allowed()) {
+            response.setStatus(429);
+            response.setHeader("Retry-After", Long.toString(decision.retryAfterSeconds()));
+            response.setContentType("application/json");
+            response.getWriter().write(TOO_MANY_REQUESTS_BODY);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        // Preflights are not limited, and only configured paths are checked
+        return "OPTIONS".equals(request.getMethod()) || !rateLimiter.isLimited(request.getRequestURI());
+    }
+}
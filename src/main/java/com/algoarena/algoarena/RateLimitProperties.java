@@ -0,0 +1,110 @@
+//src/main/java/com/algoarena/algoarena/RateLimitProperties.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-route rate limit policies (rate-limit.* in application.properties)
+ *
+ * rate-limit.policies.refresh.path=/api/auth/refresh
+ * rate-limit.policies.refresh.capacity=10
+ * rate-limit.policies.refresh.refill-per-second=0.2
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    
+    private boolean enabled = true;
+    
+    // Buckets untouched (and fully refilled) for this long are dropped
+    private long idleEvictionSeconds = 300;
+    
+    // Hard cap on tracked keys; beyond it new keys are let through (and counted)
+    private int maxKeys = 200_000;
+    
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+    
+    public static class Policy {
+        
+        // Exact request path the policy applies to
+        private String path;
+        
+        // Burst size
+        private int capacity = 20;
+        
+        // Sustained rate
+        private double refillPerSecond = 1.0;
+        
+        // Also limit per bearer credential, not only per client IP
+        private boolean perSubject = true;
+        
+        public String getPath() {
+            return path;
+        }
+        
+        public void setPath(String path) {
+            this.path = path;
+        }
+        
+        public int getCapacity() {
+            return capacity;
+        }
+        
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+        
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+        
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+        
+        public boolean isPerSubject() {
+            return perSubject;
+        }
+        
+        public void setPerSubject(boolean perSubject) {
+            this.perSubject = perSubject;
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public long getIdleEvictionSeconds() {
+        return idleEvictionSeconds;
+    }
+    
+    public void setIdleEvictionSeconds(long idleEvictionSeconds) {
+        this.idleEvictionSeconds = idleEvictionSeconds;
+    }
+    
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+    
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+    
+    public Map<String, Policy> getPolicies() {
+        return policies;
+    }
+    
+    public void setPolicies(Map<String, Policy> policies) {
+        this.policies = policies;
+    }
+}
@@ -0,0 +1,172 @@
+//src/main/java/com/algoarena/algoarena/ReactiveAuthController.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import com.algoarena.algoarena.ApiResponses.ErrorResponse;
+import com.algoarena.algoarena.ApiResponses.ValidationResponse;
+
+import java.util.Map;
+
+/**
+ * Non-blocking version of {@link AuthController} for the "reactive" profile
+ * Session based /generate-token is not available here (no servlet session)
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/auth")
+public class ReactiveAuthController {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private LoginEventRecorder loginEventRecorder;
+
+    @Autowired
+    private LoginAnalytics loginAnalytics;
+
+    /**
+     * Test endpoint - Generate JWT for a specific user by email
+     */
+    @PostMapping("/generate-token-test")
+    public Mono<ResponseEntity<Object>> generateTokenTest(@RequestBody Map<String, String> request) {
+        String email = request.get("email");
+
+        if (email == null) {
+            return Mono.just(respond(HttpStatus.BAD_REQUEST, new ErrorResponse(
+                "Email required",
+                "Please provide email in request body"
+            )));
+        }
+
+        return userRepository.findByEmail(email)
+            .map(user -> respond(HttpStatus.OK, UserMapper.toTokenResponse(
+                jwtUtil.generateAccessToken(user), jwtUtil.generateRefreshToken(user), user)))
+            .defaultIfEmpty(respond(HttpStatus.BAD_REQUEST, new ErrorResponse(
+                "User not found",
+                "User with email " + email + " not found"
+            )))
+            .onErrorResume(e -> Mono.just(respond(HttpStatus.INTERNAL_SERVER_ERROR, new ErrorResponse(
+                "Token generation failed",
+                String.valueOf(e.getMessage())
+            ))));
+    }
+
+    /**
+     * Refresh access token using refresh token
+     */
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<Object>> refreshToken(@RequestBody Map<String, String> request) {
+        long startNanos = System.nanoTime();
+        String refreshToken = request.get("refreshToken");
+
+        if (refreshToken == null || !jwtUtil.validateToken(refreshToken)) {
+            loginEventRecorder.recordFailure(LoginEvent.Type.REFRESH, null, null, startNanos, "invalid_token");
+            return Mono.just(respond(HttpStatus.BAD_REQUEST, new ErrorResponse(
+                "Invalid refresh token",
+                "Please login again"
+            )));
+        }
+
+        String providerId = jwtUtil.extractUsername(refreshToken);
+
+        return userRepository.findByProviderId(providerId)
+            .filter(user -> !jwtUtil.isRevoked(refreshToken, user.getTokensRevokedAt()))
+            .doOnNext(user -> {
+                loginEventRecorder.recordSuccess(LoginEvent.Type.REFRESH, user, startNanos);
+                loginAnalytics.recordActivity(user.getId());
+            })
+            .map(user -> respond(HttpStatus.OK, UserMapper.toTokenResponse(jwtUtil.generateAccessToken(user), null, null)))
+            .defaultIfEmpty(respond(HttpStatus.BAD_REQUEST, new ErrorResponse(
+                "User not found",
+                "Please login again"
+            )))
+            .onErrorResume(e -> Mono.just(respond(HttpStatus.BAD_REQUEST, new ErrorResponse(
+                "Token refresh failed",
+                String.valueOf(e.getMessage())
+            ))));
+    }
+
+    /**
+     * Validate JWT token (no database access)
+     */
+    @PostMapping("/validate")
+    public ResponseEntity<Object> validateToken(@RequestBody Map<String, String> request) {
+        String token = request.get("token");
+
+        if (token == null) {
+            return respond(HttpStatus.BAD_REQUEST, new ValidationResponse(false, null, "No token provided"));
+        }
+
+        // Remove "Bearer " prefix if present
+        if (token.startsWith("Bearer ")) {
+            token = token.substring(7);
+        }
+
+        if (jwtUtil.validateToken(token)) {
+            return respond(HttpStatus.OK, new ValidationResponse(true, jwtUtil.extractUserId(token), "Token is valid"));
+        }
+        return respond(HttpStatus.OK, new ValidationResponse(false, null, "Token is invalid or expired"));
+    }
+
+    /**
+     * Get current user info from JWT token
+     */
+    @GetMapping("/me")
+    public Mono<ResponseEntity<Object>> getCurrentUser(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String token = jwtUtil.resolveBearerToken(authHeader);
+
+        if (token == null) {
+            return Mono.just(respond(HttpStatus.BAD_REQUEST, new ErrorResponse(
+                "Missing or invalid Authorization header",
+                "Please provide a valid Bearer token"
+            )));
+        }
+
+        if (!jwtUtil.validateToken(token)) {
+            return Mono.just(respond(HttpStatus.BAD_REQUEST, new ErrorResponse(
+                "Invalid token",
+                "Token is invalid or expired"
+            )));
+        }
+
+        String providerId = jwtUtil.extractUsername(token);
+        Mono<ResponseEntity<Object>> fullResponse = userRepository.findByProviderId(providerId)
+            .filter(user -> !jwtUtil.isRevoked(token, user.getTokensRevokedAt()))
+            .map(user -> ProfileETag.ok(ProfileETag.of(user, accept)).<Object>body(UserMapper.toProfile(user)))
+            .defaultIfEmpty(respond(HttpStatus.BAD_REQUEST, new ErrorResponse(
+                "User not found",
+                "User associated with token not found"
+            )));
+
+        if (ifNoneMatch == null) {
+            return fullResponse;
+        }
+
+        // Conditional GET: compare against the stored version without loading the whole user
+        return userRepository.findProfileVersionByProviderId(providerId)
+            .filter(version -> !jwtUtil.isRevoked(token, version.getTokensRevokedAt()))
+            .map(version -> ProfileETag.of(version, accept))
+            .filter(etag -> ProfileETag.matches(ifNoneMatch, etag))
+            .map(ProfileETag::<Object>notModified)
+            .switchIfEmpty(fullResponse);
+    }
+
+    private static ResponseEntity<Object> respond(HttpStatus status, Object body) {
+        return ResponseEntity.status(status).body(body);
+    }
+}
@@ -0,0 +1,87 @@
+//src/main/java/com/algoarena/algoarena/ReactiveJwtAuthenticationFilter.java
+
+package com.algoarena.algoarena;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of {@link JwtAuthenticationFilter}
+ * Not a bean on purpose: it is added to the security chain by ReactiveSecurityConfig,
+ * registering it as a WebFilter bean would run it a second time outside the chain
+ */
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveJwtAuthenticationFilter.class);
+
+    private final JwtUtil jwtUtil;
+
+    private final ReactiveUserRepository userRepository;
+
+    public ReactiveJwtAuthenticationFilter(JwtUtil jwtUtil, ReactiveUserRepository userRepository) {
+        this.jwtUtil = jwtUtil;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String jwtToken = jwtUtil.resolveBearerToken(
+            exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+
+        if (jwtToken == null) {
+            return chain.filter(exchange);
+        }
+
+        // Validate token (pure CPU work, fine on the event loop)
+        if (!jwtUtil.validateToken(jwtToken)) {
+            log.atWarn()
+                .setMessage("JWT Token validation failed")
+                .addKeyValue("event", "jwt_auth_failed")
+                .addKeyValue("reason", "invalid")
+                .addKeyValue("path", exchange.getRequest().getPath().value())
+                .log();
+            return chain.filter(exchange);
+        }
+
+        String providerId = jwtUtil.extractUsername(jwtToken);
+
+        // Get user from database to ensure user still exists
+        return userRepository.findByProviderId(providerId)
+            .filter(user -> !jwtUtil.isRevoked(jwtToken, user.getTokensRevokedAt()))
+            .map(user -> Optional.of(authenticationFor(user)))
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(authentication -> {
+                if (authentication.isEmpty()) {
+                    log.atWarn()
+                        .setMessage("User not found or token revoked")
+                        .addKeyValue("event", "jwt_auth_failed")
+                        .addKeyValue("reason", "unknown_user_or_revoked")
+                        .addKeyValue("providerId", providerId)
+                        .log();
+                    return chain.filter(exchange);
+                }
+                return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication.get()));
+            });
+    }
+
+    private Authentication authenticationFor(User user) {
+        return new UsernamePasswordAuthenticationToken(
+            user, // Principal (the user object)
+            null, // Credentials (we don't need password for JWT)
+            List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+    }
+}
@@ -0,0 +1,111 @@
+//src/main/java/com/algoarena/algoarena/ReactiveProtectedController.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import com.algoarena.algoarena.ApiResponses.ErrorResponse;
+import com.algoarena.algoarena.ApiResponses.ProfileResponse;
+import com.algoarena.algoarena.ApiResponses.ProfileUpdateResponse;
+import com.algoarena.algoarena.ApiResponses.UserListResponse;
+
+import java.util.Map;
+
+/**
+ * Non-blocking version of {@link ProtectedController} for the "reactive" profile
+ * The user is resolved once by ReactiveJwtAuthenticationFilter and injected as principal
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/protected")
+public class ReactiveProtectedController {
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    /**
+     * Get user profile - requires valid JWT token
+     */
+    @GetMapping("/profile")
+    public ResponseEntity<Object> getUserProfile(
+            @AuthenticationPrincipal User user,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String etag = ProfileETag.of(user, accept);
+        if (ProfileETag.matches(ifNoneMatch, etag)) {
+            return ProfileETag.notModified(etag);
+        }
+        return ProfileETag.ok(etag).body(new ProfileResponse(true, UserMapper.toProfile(user)));
+    }
+
+    /**
+     * Update user profile - requires valid JWT token
+     */
+    @PutMapping("/profile")
+    public Mono<ResponseEntity<Object>> updateUserProfile(
+            @AuthenticationPrincipal User user,
+            @RequestBody Map<String, String> updates) {
+        String newName = updates.get("name");
+        String newUsername = updates.get("username");
+
+        // Validate that at least one field is provided
+        if ((newName == null || newName.trim().isEmpty()) &&
+            (newUsername == null || newUsername.trim().isEmpty())) {
+            return Mono.just(respond(HttpStatus.BAD_REQUEST, new ErrorResponse(
+                "No valid fields to update",
+                "Provide 'name' or 'username' to update"
+            )));
+        }
+
+        return userService.updateUserById(user.getId(), newName, newUsername)
+            .map(updatedUser -> respond(HttpStatus.OK, new ProfileUpdateResponse(
+                true,
+                "Profile updated successfully",
+                UserMapper.toUpdated(updatedUser)
+            )))
+            .defaultIfEmpty(respond(HttpStatus.NOT_FOUND, new ErrorResponse(
+                "User not found",
+                "User could not be updated"
+            )))
+            .onErrorResume(e -> Mono.just(respond(HttpStatus.INTERNAL_SERVER_ERROR, new ErrorResponse(
+                "Internal server error",
+                String.valueOf(e.getMessage())
+            ))));
+    }
+
+    /**
+     * Get user dashboard data - requires valid JWT token
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<Object> getDashboardData(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(UserMapper.toDashboard(user));
+    }
+
+    /**
+     * Admin endpoint - get all users (requires valid JWT token)
+     */
+    @GetMapping("/admin/users")
+    public Mono<ResponseEntity<Object>> getAllUsers(@AuthenticationPrincipal User user) {
+        return userRepository.findAll()
+            .collectList()
+            .map(allUsers -> respond(HttpStatus.OK, new UserListResponse(
+                true,
+                UserMapper.toAdminViews(allUsers),
+                user.getName()
+            )));
+    }
+
+    private static ResponseEntity<Object> respond(HttpStatus status, Object body) {
+        return ResponseEntity.status(status).body(body);
+    }
+}
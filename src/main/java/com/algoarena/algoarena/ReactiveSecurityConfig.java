@@ -0,0 +1,62 @@
+//src/main/java/com/algoarena/algoarena/ReactiveSecurityConfig.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+/**
+ * Security setup for the "reactive" profile (WebFlux + reactive Mongo)
+ * Only the JWT-based API is served here, the OAuth2 browser login stays on the servlet stack
+ */
+@Configuration
+@EnableWebFluxSecurity
+@Profile("reactive")
+public class ReactiveSecurityConfig {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Bean
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+        UrlBasedCorsConfigurationSource corsSource = new UrlBasedCorsConfigurationSource();
+        corsSource.registerCorsConfiguration("/api/**", CorsConfig.apiCorsConfiguration());
+
+        http
+            // Same CORS rules as the servlet stack
+            .cors(cors -> cors.configurationSource(corsSource))
+            // Stateless JWT API: no CSRF, no form/basic login, no session-backed context
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            // JWT filter at the authentication stage
+            .addFilterAt(new ReactiveJwtAuthenticationFilter(jwtUtil, userRepository), SecurityWebFiltersOrder.AUTHENTICATION)
+            .authorizeExchange(exchanges -> exchanges
+                .pathMatchers("/", "/public", "/error", "/api/health").permitAll()
+                .pathMatchers("/actuator/health/**", "/livez", "/readyz").permitAll()
+                .pathMatchers("/api/auth/**").permitAll()
+                .pathMatchers("/api/schema/**").permitAll()
+                .pathMatchers("/api/protected/**").authenticated()
+                .anyExchange().authenticated()
+            )
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED))
+            );
+
+        return http.build();
+    }
+}
@@ -0,0 +1,22 @@
+//src/main/java/com/algoarena/algoarena/ReactiveUserRepository.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("reactive")
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    
+    // Find user by provider ID (Google ID or GitHub ID)
+    Mono<User> findByProviderId(String providerId);
+    
+    // Find user by email (useful for Google users)
+    Mono<User> findByEmail(String email);
+    
+    // Only id and profileVersion, for conditional GETs
+    Mono<UserRepository.ProfileVersionView> findProfileVersionByProviderId(String providerId);
+}
@@ -0,0 +1,62 @@
+//src/main/java/com/algoarena/algoarena/ReactiveUserService.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of {@link UserService}'s profile writes for the "reactive" profile
+ * Same update rules (UserService.applyProfileUpdates) and the same UserChangedEvent, so the
+ * node-local listeners (statistics, analytics, lookup cache) see reactive writes too
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserService {
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Update specific user fields by ID, empty if there is no such user
+     */
+    public Mono<User> updateUserById(String userId, String name, String username) {
+        return userRepository.findById(userId)
+            .flatMap(user -> {
+                LocalDateTime previousLastLoginAt = user.getLastLoginAt();
+                UserService.applyProfileUpdates(user, name, username);
+                return saveVersioned(user)
+                    .doOnNext(saved -> eventPublisher.publishEvent(
+                        UserChangedEvent.of(UserChangedEvent.Type.UPDATED, saved, previousLastLoginAt)));
+            });
+    }
+
+    /**
+     * Same update as UserRepository.saveTracked: stored fields and profileVersion + 1 at once
+     */
+    private Mono<User> saveVersioned(User user) {
+        Query byId = Query.query(Criteria.where("id").is(user.getId()));
+        byId.fields().include("profileVersion");
+        return mongoTemplate.findAndModify(byId, UserRepositoryCustomImpl.versionedUpdate(mongoTemplate.getConverter(), user),
+                FindAndModifyOptions.options().returnNew(true).upsert(true), User.class)
+            .map(stored -> {
+                user.setProfileVersion(stored.getProfileVersion());
+                return user;
+            });
+    }
+}
@@ -0,0 +1,128 @@
+//src/main/java/com/algoarena/algoarena/ReadPreferenceProperties.java
+
+package com.algoarena.algoarena;
+
+import com.mongodb.ReadPreference;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read preference per class of user query (read-preference.* in application.properties)
+ *
+ * read-preference.listing.mode=secondaryPreferred
+ * read-preference.listing.max-staleness-seconds=120
+ *
+ * identity: findByProviderId and profile versions (auth path, /me, /profile)
+ * profile:  loads for read-modify-write (profile edits, revocation, deletion)
+ * listing:  admin and public user listings
+ * search:   lookups by email
+ */
+@Component
+@ConfigurationProperties(prefix = "read-preference")
+public class ReadPreferenceProperties {
+
+    private Target identity = new Target();
+
+    private Target profile = new Target();
+
+    private Target listing = new Target("secondaryPreferred", 120);
+
+    private Target search = new Target("secondaryPreferred", 120);
+
+    // How long a user's own write is tracked for causally consistent reads from secondaries
+    private long causalWindowSeconds = 120;
+
+    // Hard cap on users with a tracked write; beyond it writes are not tracked
+    private int causalMaxTrackedUsers = 100_000;
+
+    public static class Target {
+
+        // primary, primaryPreferred, secondary, secondaryPreferred or nearest
+        private String mode = "primary";
+
+        // 0: no staleness limit; otherwise at least 90 (server minimum), ignored for primary
+        private long maxStalenessSeconds;
+
+        public Target() {
+        }
+
+        Target(String mode, long maxStalenessSeconds) {
+            this.mode = mode;
+            this.maxStalenessSeconds = maxStalenessSeconds;
+        }
+
+        public ReadPreference toReadPreference() {
+            if ("primary".equalsIgnoreCase(mode) || maxStalenessSeconds <= 0) {
+                return ReadPreference.valueOf(mode);
+            }
+            return ReadPreference.valueOf(mode, List.of(), maxStalenessSeconds, TimeUnit.SECONDS);
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public long getMaxStalenessSeconds() {
+            return maxStalenessSeconds;
+        }
+
+        public void setMaxStalenessSeconds(long maxStalenessSeconds) {
+            this.maxStalenessSeconds = maxStalenessSeconds;
+        }
+    }
+
+    public Target getIdentity() {
+        return identity;
+    }
+
+    public void setIdentity(Target identity) {
+        this.identity = identity;
+    }
+
+    public Target getProfile() {
+        return profile;
+    }
+
+    public void setProfile(Target profile) {
+        this.profile = profile;
+    }
+
+    public Target getListing() {
+        return listing;
+    }
+
+    public void setListing(Target listing) {
+        this.listing = listing;
+    }
+
+    public Target getSearch() {
+        return search;
+    }
+
+    public void setSearch(Target search) {
+        this.search = search;
+    }
+
+    public long getCausalWindowSeconds() {
+        return causalWindowSeconds;
+    }
+
+    public void setCausalWindowSeconds(long causalWindowSeconds) {
+        this.causalWindowSeconds = causalWindowSeconds;
+    }
+
+    public int getCausalMaxTrackedUsers() {
+        return causalMaxTrackedUsers;
+    }
+
+    public void setCausalMaxTrackedUsers(int causalMaxTrackedUsers) {
+        this.causalMaxTrackedUsers = causalMaxTrackedUsers;
+    }
+}
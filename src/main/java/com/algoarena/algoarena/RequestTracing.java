@@ -0,0 +1,232 @@
+//src/main/java/com/algoarena/algoarena/RequestTracing.java
+
+package com.algoarena.algoarena;
+
+import com.algoarena.algoarena.ApiResponses.SpanView;
+import com.algoarena.algoarena.ApiResponses.TraceView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-process request tracing, no collector needed
+ *
+ * A trace lives in a ThreadLocal while its request runs on that thread (TracingFilter starts
+ * and ends it), so span() is a ThreadLocal read plus one nanoTime() when a trace is active and
+ * a no-op otherwise (reactive profile, background threads). Finished traces are frozen and
+ * written to a fixed-size ring buffer: one getAndIncrement on the cursor, then a plain slot
+ * store, so writers never wait on each other or on readers; the oldest trace is overwritten.
+ */
+@Component
+public class RequestTracing {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final ThreadLocal<ActiveTrace> CURRENT = new ThreadLocal<>();
+
+    // Spans per trace beyond this are counted but not kept (e.g. a loop of queries)
+    private static final int MAX_SPANS = 64;
+
+    private static final Span NOOP = () -> { };
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /**
+     * A span in progress; close() records it on the trace that opened it
+     */
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final boolean enabled;
+    private final AtomicReferenceArray<TraceView> ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public RequestTracing(@Value("${tracing.enabled:true}") boolean enabled,
+                          @Value("${tracing.buffer-size:1024}") int bufferSize) {
+        this.enabled = enabled;
+        // Rounded up to a power of two so the slot is cursor & mask
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize) - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Open a span on the current request's trace, close it with try-with-resources
+     */
+    public static Span span(String name) {
+        ActiveTrace trace = CURRENT.get();
+        if (trace == null) {
+            return NOOP;
+        }
+        long startNanos = System.nanoTime();
+        return () -> trace.addSpan(name, startNanos, System.nanoTime());
+    }
+
+    /**
+     * Record a span whose duration is already known (it ended just now)
+     */
+    public static void record(String name, long durationNanos) {
+        ActiveTrace trace = CURRENT.get();
+        if (trace != null) {
+            long endNanos = System.nanoTime();
+            trace.addSpan(name, endNanos - durationNanos, endNanos);
+        }
+    }
+
+    /**
+     * Mark a phase boundary: ends the current phase span (if any) and starts the next one
+     * Phases are the top-level, non-overlapping parts of a request (security, controller, ...)
+     */
+    public static void phase(String name) {
+        ActiveTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.switchPhase(name, System.nanoTime());
+        }
+    }
+
+    /**
+     * Trace id of the request running on this thread, or null
+     */
+    public static String currentTraceId() {
+        ActiveTrace trace = CURRENT.get();
+        return trace != null ? trace.traceId : null;
+    }
+
+    /**
+     * Start a trace on this thread; a usable incoming request id is kept as the trace id
+     * Returns the trace id to echo back to the client
+     */
+    public String begin(String requestId, String method, String path, String firstPhase) {
+        String traceId = isUsableRequestId(requestId) ? requestId : UUID.randomUUID().toString();
+        if (enabled) {
+            ActiveTrace trace = new ActiveTrace(traceId, method, path);
+            trace.switchPhase(firstPhase, trace.startNanos);
+            CURRENT.set(trace);
+        }
+        return traceId;
+    }
+
+    /**
+     * Finish this thread's trace and publish it to the ring buffer
+     */
+    public void end(int status) {
+        ActiveTrace trace = CURRENT.get();
+        if (trace == null) {
+            return;
+        }
+        CURRENT.remove();
+        ring.set((int) (cursor.getAndIncrement() & mask), trace.freeze(status, System.nanoTime()));
+    }
+
+    /**
+     * The slowest traces currently in the buffer, slowest first
+     */
+    public List<TraceView> slowest(int limit) {
+        List<TraceView> traces = new ArrayList<>(ring.length());
+        for (int i = 0; i < ring.length(); i++) {
+            TraceView trace = ring.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        traces.sort(Comparator.comparingLong(TraceView::durationMicros).reversed());
+        return traces.size() > limit ? List.copyOf(traces.subList(0, limit)) : traces;
+    }
+
+    public int capacity() {
+        return ring.length();
+    }
+
+    // Ids end up in logs and response headers, only accept short token-like values
+    private static boolean isUsableRequestId(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > 64) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            if (!(Character.isLetterOrDigit(c) && c < 128) && c != '-' && c != '_' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record RawSpan(String name, long fromNanos, long toNanos) {}
+
+    /**
+     * Mutable trace, only touched by the thread serving the request
+     */
+    private static final class ActiveTrace {
+
+        final String traceId;
+        final String method;
+        final String path;
+        final long startNanos = System.nanoTime();
+        final long startEpochMillis = System.currentTimeMillis();
+        final List<RawSpan> spans = new ArrayList<>();
+        int droppedSpans;
+
+        String phaseName;
+        long phaseStartNanos;
+
+        ActiveTrace(String traceId, String method, String path) {
+            this.traceId = traceId;
+            this.method = method;
+            this.path = path;
+        }
+
+        void addSpan(String name, long fromNanos, long toNanos) {
+            if (spans.size() >= MAX_SPANS) {
+                droppedSpans++;
+                return;
+            }
+            spans.add(new RawSpan(name, fromNanos, toNanos));
+        }
+
+        void switchPhase(String name, long nowNanos) {
+            if (phaseName != null) {
+                addSpan(phaseName, phaseStartNanos, nowNanos);
+            }
+            phaseName = name;
+            phaseStartNanos = nowNanos;
+        }
+
+        TraceView freeze(int status, long endNanos) {
+            switchPhase(null, endNanos);
+
+            List<SpanView> views = new ArrayList<>(spans.size());
+            for (RawSpan span : spans) {
+                views.add(new SpanView(span.name(), micros(span.fromNanos() - startNanos), micros(span.toNanos() - span.fromNanos())));
+            }
+            views.sort(Comparator.comparingLong(SpanView::startOffsetMicros));
+
+            return new TraceView(
+                traceId,
+                method,
+                path,
+                status,
+                TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(startEpochMillis).atZone(ZoneId.systemDefault())),
+                micros(endNanos - startNanos),
+                views,
+                droppedSpans
+            );
+        }
+
+        private static long micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+//src/main/java/com/algoarena/algoarena/SchemaController.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Published .proto schemas for clients requesting application/x-protobuf
+ * Works on both the servlet and reactive stacks
+ */
+@RestController
+@RequestMapping("/api/schema")
+public class SchemaController {
+
+    @Autowired
+    private ProtobufSchemas protobufSchemas;
+
+    /**
+     * Names of all response messages, e.g. ["AuthenticatedUserResponse", "ProfileResponse", ...]
+     */
+    @GetMapping
+    public Iterable<String> listSchemas() {
+        return protobufSchemas.typeNames();
+    }
+
+    /**
+     * Schema for one response message, e.g. /api/schema/ProfileResponse.proto
+     */
+    @GetMapping(value = "/{type}.proto", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getSchema(@PathVariable String type) {
+        return protobufSchemas.source(type)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -5,15 +5,23 @@ package com.algoarena.algoarena;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Configuration
 @EnableWebSecurity
+@Profile("!reactive")
 public class SecurityConfig {
 
     @Autowired
@@ -24,6 +32,9 @@ public class SecurityConfig {
     
     @Autowired
     private CorsConfigurationSource corsConfigurationSource;
+    
+    @Autowired
+    private HttpCookieOAuth2AuthorizationRequestRepository authorizationRequestRepository;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -34,16 +45,20 @@ public class SecurityConfig {
             .csrf(csrf -> csrf
                 .ignoringRequestMatchers("/api/**")
             )
-            // Configure session management - stateless for JWT
+            // Configure session management - fully stateless, OAuth2 state lives in signed cookies
             .sessionManagement(session -> session
-                .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED) // Allow sessions for OAuth2, but JWT endpoints are stateless
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             // Add JWT filter before the default authentication filter
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
             // Configure URL-based authorization
             .authorizeHttpRequests(authz -> authz
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()  // SSE streams: checked on the initial dispatch
                 .requestMatchers("/", "/public", "/error").permitAll()
+                .requestMatchers("/actuator/health/**", "/livez", "/readyz").permitAll()  // Probes, served from cached state
+                .requestMatchers("/dashboard").permitAll()  // Resolves the user from the login handoff cookie itself
                 .requestMatchers("/api/users", "/api/auth/**", "/api/frontend/**").permitAll()  // Allow public access to auth APIs
+                .requestMatchers("/api/schema/**").permitAll()  // Published protobuf schemas
                 .requestMatchers("/oauth2/**", "/login/**").permitAll()  // Allow OAuth2 endpoints
                 .requestMatchers("/api/protected/**").authenticated()  // Require authentication for protected APIs
                 .anyRequest().authenticated()  // All other URLs require authentication
@@ -51,16 +66,46 @@ public class SecurityConfig {
             // Configure OAuth2 login with custom success handler
             .oauth2Login(oauth2 -> oauth2
                 .loginPage("/oauth2/authorization/google")  // Default login redirect
+                .authorizationEndpoint(authorization -> authorization
+                    .authorizationRequestRepository(authorizationRequestRepository)  // state/PKCE in a cookie, not the session
+                )
                 .successHandler(oauth2LoginSuccessHandler)  // Use our custom success handler
                 .failureUrl("/login?error=true")            // Where to go if login fails
             )
             // Configure logout
             .logout(logout -> logout
                 .logoutSuccessUrl("/")                      // Where to go after logout
-                .invalidateHttpSession(true)
+                .deleteCookies(LoginHandoffCookie.COOKIE_NAME)
                 .clearAuthentication(true)
             );
 
         return http.build();
     }
+
+    /**
+     * We never call the provider APIs after login, so don't keep the provider's
+     * access tokens around (the default in-memory service holds them per user forever)
+     */
+    @Bean
+    public OAuth2AuthorizedClientRepository authorizedClientRepository() {
+        return new OAuth2AuthorizedClientRepository() {
+            @Override
+            public <T extends OAuth2AuthorizedClient> T loadAuthorizedClient(String clientRegistrationId,
+                    Authentication principal, HttpServletRequest request) {
+                return null;
+            }
+
+            @Override
+            public void saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal,
+                    HttpServletRequest request, HttpServletResponse response) {
+                // Intentionally not stored
+            }
+
+            @Override
+            public void removeAuthorizedClient(String clientRegistrationId, Authentication principal,
+                    HttpServletRequest request, HttpServletResponse response) {
+                // Nothing stored
+            }
+        };
+    }
 }
\ No newline at end of file
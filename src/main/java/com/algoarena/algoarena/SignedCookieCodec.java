@@ -0,0 +1,131 @@
+//src/main/java/com/algoarena/algoarena/SignedCookieCodec.java
+
+package com.algoarena.algoarena;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Short-lived, HMAC-signed cookie values
+ * Format: base64url(payload) "." expiresAtEpochSeconds "." base64url(hmacSha256)
+ * Lets any node verify state written by another node without a shared session store
+ */
+@Component
+public class SignedCookieCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec signingKey;
+
+    // Secure flag should be on whenever the backend is served over HTTPS
+    @Value("${auth.cookie.secure:false}")
+    private boolean secureCookies;
+
+    public SignedCookieCodec(@Value("${auth.cookie.secret:${jwt.secret:mySecretKeyForAlgoArenaAppThatIsLongEnoughForHS256Algorithm}}") String secret) {
+        // Domain-separate the cookie key from the JWT signing key
+        this.signingKey = new SecretKeySpec(("cookie:" + secret).getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    /**
+     * Sign a payload that stays valid for the given time
+     */
+    public String encode(String payload, Duration ttl) {
+        long expiresAt = System.currentTimeMillis() / 1000 + ttl.toSeconds();
+        String body = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + expiresAt;
+        return body + "." + ENCODER.encodeToString(hmac(body));
+    }
+
+    /**
+     * Verify signature and expiry, returning the original payload
+     */
+    public Optional<String> decode(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        int signatureStart = value.lastIndexOf('.');
+        int expiryStart = value.lastIndexOf('.', signatureStart - 1);
+        if (signatureStart < 0 || expiryStart < 0) {
+            return Optional.empty();
+        }
+        try {
+            String body = value.substring(0, signatureStart);
+            byte[] signature = DECODER.decode(value.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(hmac(body), signature)) {
+                return Optional.empty();
+            }
+            long expiresAt = Long.parseLong(value.substring(expiryStart + 1, signatureStart));
+            if (expiresAt < System.currentTimeMillis() / 1000) {
+                return Optional.empty();
+            }
+            return Optional.of(new String(DECODER.decode(value.substring(0, expiryStart)), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            // Malformed base64 or expiry
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Read and verify a signed cookie from the request
+     */
+    public Optional<String> read(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return Optional.empty();
+        }
+        for (Cookie cookie : cookies) {
+            if (name.equals(cookie.getName())) {
+                return decode(cookie.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Sign the payload and set it as an HttpOnly cookie
+     */
+    public void write(HttpServletResponse response, String name, String payload, Duration ttl) {
+        response.addCookie(cookie(name, encode(payload, ttl), (int) ttl.toSeconds()));
+    }
+
+    /**
+     * Expire a cookie previously set with {@link #write}
+     */
+    public void clear(HttpServletResponse response, String name) {
+        response.addCookie(cookie(name, "", 0));
+    }
+
+    private Cookie cookie(String name, String value, int maxAge) {
+        Cookie cookie = new Cookie(name, value);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setSecure(secureCookies);
+        cookie.setMaxAge(maxAge);
+        // Lax still sends the cookie on the top-level redirect back from the OAuth2 provider
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+
+    private byte[] hmac(String data) {
+        try {
+            // Mac instances are not thread-safe, creating one is cheap compared to the request
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
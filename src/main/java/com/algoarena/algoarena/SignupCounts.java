@@ -0,0 +1,42 @@
+//src/main/java/com/algoarena/algoarena/SignupCounts.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Signups of one day per provider (id is the ISO date, UTC)
+ * Shared by all nodes, each one adds its local delta with $inc
+ */
+@Document(collection = "analytics_signups")
+public class SignupCounts {
+    
+    @Id
+    private String day;
+    
+    private Map<String, Long> providers = new HashMap<>();
+    
+    // Constructors
+    public SignupCounts() {}
+    
+    // Getters and Setters
+    public String getDay() {
+        return day;
+    }
+    
+    public void setDay(String day) {
+        this.day = day;
+    }
+    
+    public Map<String, Long> getProviders() {
+        return providers;
+    }
+    
+    public void setProviders(Map<String, Long> providers) {
+        this.providers = providers;
+    }
+}
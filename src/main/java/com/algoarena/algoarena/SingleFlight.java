@@ -0,0 +1,98 @@
+//src/main/java/com/algoarena/algoarena/SingleFlight.java
+
+package com.algoarena.algoarena;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one execution ("single flight")
+ *
+ * The first caller for a key registers a future with putIfAbsent and runs the call; callers
+ * arriving while it runs wait for that future and get the same result or exception. The
+ * entry is removed as soon as the call completes, so nothing is cached and the map only
+ * holds keys that are in flight; beyond maxKeys of them, calls simply run uncoalesced.
+ *
+ * The result is shared between callers and must be treated as read-only.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    public SingleFlight(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        if (key == null || inFlight.size() >= maxKeys) {
+            bypassed.increment();
+            return call.get();
+        }
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+
+        executed.increment();
+        try {
+            V value = call.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Calls that ran (as leader of their key)
+     */
+    public long executed() {
+        return executed.sum();
+    }
+
+    /**
+     * Calls answered by another caller's execution, i.e. saved queries
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Calls that ran uncoalesced because maxKeys keys were in flight (or the key was null)
+     */
+    public long bypassed() {
+        return bypassed.sum();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            // Rethrow what the leader's call threw, not the wrapper
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+//src/main/java/com/algoarena/algoarena/TracingConfig.java
+
+package com.algoarena.algoarena;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Span sources for RequestTracing besides the filter
+ *
+ * Request phases: "security" (TracingFilter until the handler is reached), "controller"
+ * (handler method) and "serialization" (message converter writing the body). JWT work is
+ * traced inside JwtUtil, every MongoDB command through the driver's command listener.
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * One "mongo.<command>" span per command; the sync driver notifies on the calling thread,
+     * so the span lands on the request's trace (reactive driver callbacks find none, no-op)
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer tracingCommandListener() {
+        CommandListener listener = new CommandListener() {
+            @Override
+            public void commandSucceeded(CommandSucceededEvent event) {
+                RequestTracing.record("mongo." + event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+
+            @Override
+            public void commandFailed(CommandFailedEvent event) {
+                RequestTracing.record("mongo." + event.getCommandName() + ".failed", event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+        };
+        return settings -> settings.addCommandListener(listener);
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public WebMvcConfigurer tracingInterceptorConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        RequestTracing.phase("controller");
+                        return true;
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Ends the controller phase right before the converter writes the body
+     * The serialization phase then runs until TracingFilter ends the trace
+     */
+    @ControllerAdvice
+    @Profile("!reactive")
+    static class SerializationPhaseAdvice implements ResponseBodyAdvice<Object> {
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            RequestTracing.phase("serialization");
+            return body;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+//src/main/java/com/algoarena/algoarena/TracingFilter.java
+
+package com.algoarena.algoarena;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Starts a trace for every request and echoes its id in X-Request-Id
+ * Runs right after CorsPreflightFilter, so the "security" phase covers the rate limiter and
+ * the whole Spring Security chain (TracingConfig ends it when the handler is reached).
+ * The trace id is also put in the logging MDC as traceId.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TracingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RequestTracing requestTracing;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String traceId = requestTracing.begin(request.getHeader(RequestTracing.REQUEST_ID_HEADER),
+            request.getMethod(), request.getRequestURI(), "security");
+        response.setHeader(RequestTracing.REQUEST_ID_HEADER, traceId);
+        MDC.put("traceId", traceId);
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove("traceId");
+            requestTracing.end(response.getStatus());
+        }
+    }
+}
@@ -31,6 +31,12 @@ public class User {
     
     private LocalDateTime lastLoginAt;
     
+    private long profileVersion; // Incremented by the store on every update (saveTracked), used for ETags
+    
+    private LocalDateTime tokensRevokedAt; // Tokens issued up to this time are rejected
+    
+    private long loginCount; // OAuth2 logins, counted since this field was introduced
+    
     // Constructors
     public User() {}
     
@@ -118,11 +124,41 @@ public class User {
         this.lastLoginAt = lastLoginAt;
     }
     
+    public long getProfileVersion() {
+        return profileVersion;
+    }
+    
+    public void setProfileVersion(long profileVersion) {
+        this.profileVersion = profileVersion;
+    }
+    
+    public LocalDateTime getTokensRevokedAt() {
+        return tokensRevokedAt;
+    }
+    
+    public void setTokensRevokedAt(LocalDateTime tokensRevokedAt) {
+        this.tokensRevokedAt = tokensRevokedAt;
+    }
+    
+    public long getLoginCount() {
+        return loginCount;
+    }
+    
+    public void setLoginCount(long loginCount) {
+        this.loginCount = loginCount;
+    }
+    
     // Helper method to update last login
     public void updateLastLogin() {
         this.lastLoginAt = LocalDateTime.now();
     }
     
+    // Helper method to record a completed OAuth2 login
+    public void recordLogin() {
+        this.loginCount++;
+        updateLastLogin();
+    }
+    
     @Override
     public String toString() {
         return "User{" +
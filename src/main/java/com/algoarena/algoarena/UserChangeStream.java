@@ -0,0 +1,284 @@
+//src/main/java/com/algoarena/algoarena/UserChangeStream.java
+
+package com.algoarena.algoarena;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tails the users collection's change stream and republishes every change as a
+ * UserChangeStreamEvent, so node-local user state (cached principals, SSE streams) converges
+ * with writes made on other nodes without polling
+ *
+ * The resume token is persisted in change_stream_offsets under change-stream.consumer-id at
+ * most every change-stream.token-flush-ms (and on shutdown), so a restarted node continues
+ * where it stopped; idle periods advance the token too (post-batch resume token). When the
+ * stream cannot resume (token too old for the oplog, invalidated collection) it starts over
+ * from now and publishes RESYNC.
+ *
+ * Needs a replica set (a single-node one is enough), hence change-stream.enabled is off by
+ * default. Metrics: user.change_stream.events by type, user.change_stream.restarts and
+ * user.change_stream.lag (ms between the write and its delivery here).
+ */
+@Component
+public class UserChangeStream {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeStream.class);
+
+    static final String OFFSETS_COLLECTION = "change_stream_offsets";
+
+    // Resume not possible: ChangeStreamHistoryLost, InvalidResumeToken, ChangeStreamFatalError
+    private static final Set<Integer> UNRESUMABLE_ERRORS = Set.of(286, 260, 280);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${change-stream.enabled:false}")
+    private boolean enabled;
+
+    @Value("${change-stream.consumer-id:${HOSTNAME:local}}")
+    private String consumerId;
+
+    @Value("${change-stream.max-await-ms:500}")
+    private long maxAwaitMs;
+
+    @Value("${change-stream.token-flush-ms:1000}")
+    private long tokenFlushMs;
+
+    @Value("${change-stream.retry-backoff-ms:2000}")
+    private long retryBackoffMs;
+
+    private final Map<UserChangeStreamEvent.Type, Counter> eventCounters = new EnumMap<>(UserChangeStreamEvent.Type.class);
+    private final AtomicLong lagMs = new AtomicLong();
+    private Counter restarts;
+
+    private Thread tailer;
+    private volatile boolean running;
+
+    // Only touched by the tailer thread (and by stop() after it exited)
+    private BsonDocument resumeToken;
+    private BsonDocument flushedToken;
+    private long lastFlushNanos;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        for (UserChangeStreamEvent.Type type : UserChangeStreamEvent.Type.values()) {
+            eventCounters.put(type, Counter.builder("user.change_stream.events")
+                .description("Changes to users received through the change stream")
+                .tag("type", type.name().toLowerCase())
+                .register(meterRegistry));
+        }
+        restarts = Counter.builder("user.change_stream.restarts")
+            .description("Change stream cursors reopened after an error")
+            .register(meterRegistry);
+        Gauge.builder("user.change_stream.lag", lagMs, AtomicLong::get)
+            .description("Milliseconds between the last write and its delivery on this node")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+
+        running = true;
+        tailer = new Thread(this::tailLoop, "user-change-stream");
+        tailer.setDaemon(true);
+        tailer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (tailer == null) {
+            return;
+        }
+        running = false;
+        tailer.join(maxAwaitMs + 5000); // exits after the current await
+        if (!tailer.isAlive()) {
+            flushToken(true);
+        }
+    }
+
+    private void tailLoop() {
+        resumeToken = loadToken();
+        boolean resync = false;
+
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open(resumeToken)) {
+                if (resync) {
+                    publish(new UserChangeStreamEvent(UserChangeStreamEvent.Type.RESYNC, null, null));
+                    resync = false;
+                }
+                log.info("Tailing the users change stream as {}", consumerId);
+
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null && !dispatch(change)) {
+                        resumeToken = change.getResumeToken(); // invalidated: reopen after this event
+                        resync = true;
+                        break;
+                    }
+                    // Advances on idle batches too, so a quiet collection never falls off the oplog
+                    BsonDocument token = cursor.getResumeToken();
+                    if (token != null) {
+                        resumeToken = token;
+                    }
+                    flushToken(false);
+                }
+            } catch (MongoCommandException e) {
+                if (UNRESUMABLE_ERRORS.contains(e.getErrorCode())) {
+                    log.warn("Cannot resume the users change stream ({}), starting from now", e.getErrorCodeName());
+                    resumeToken = null;
+                    resync = true;
+                } else {
+                    log.warn("Users change stream failed: {}", e.getMessage());
+                }
+                backOff();
+            } catch (MongoException | IllegalStateException e) {
+                log.warn("Users change stream failed: {}", e.getMessage());
+                backOff();
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open(BsonDocument token) {
+        MongoCollection<Document> users = mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class));
+        ChangeStreamIterable<Document> stream = users
+            .watch(List.of(Aggregates.match(Filters.in("operationType", "insert", "update", "replace", "delete", "invalidate"))))
+            .fullDocument(FullDocument.UPDATE_LOOKUP)
+            .maxAwaitTime(maxAwaitMs, TimeUnit.MILLISECONDS);
+        if (token != null) {
+            stream = stream.startAfter(token);
+        }
+        return stream.cursor();
+    }
+
+    /**
+     * Publishes the change; false when the stream was invalidated (collection dropped or renamed)
+     */
+    private boolean dispatch(ChangeStreamDocument<Document> change) {
+        if (change.getWallTime() != null) {
+            lagMs.set(Math.max(0, System.currentTimeMillis() - change.getWallTime().getValue()));
+        }
+
+        String userId = idOf(change.getDocumentKey());
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                // The looked-up document is null if it was deleted meanwhile, its delete event follows
+                if (change.getFullDocument() != null) {
+                    User user = mongoTemplate.getConverter().read(User.class, change.getFullDocument());
+                    publish(new UserChangeStreamEvent(
+                        change.getOperationType() == OperationType.INSERT
+                            ? UserChangeStreamEvent.Type.INSERTED
+                            : UserChangeStreamEvent.Type.UPDATED,
+                        userId != null ? userId : user.getId(), user));
+                }
+            }
+            case DELETE -> publish(new UserChangeStreamEvent(UserChangeStreamEvent.Type.DELETED, userId, null));
+            case INVALIDATE -> {
+                // startAfter the invalidate event opens a new stream on the recreated collection
+                return false;
+            }
+            default -> { }
+        }
+        return true;
+    }
+
+    private void publish(UserChangeStreamEvent event) {
+        eventCounters.get(event.type()).increment();
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Listener failed for {} of user {}: {}", event.type(), event.userId(), e.getMessage());
+        }
+    }
+
+    private static String idOf(BsonDocument documentKey) {
+        BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private BsonDocument loadToken() {
+        try {
+            BsonDocument offset = offsets().find(Filters.eq("_id", consumerId)).first();
+            return offset != null && offset.isDocument("token") ? offset.getDocument("token") : null;
+        } catch (MongoException e) {
+            log.warn("Could not load the change stream resume token, starting from now: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void flushToken(boolean force) {
+        if (resumeToken == null || resumeToken.equals(flushedToken)) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (!force && now - lastFlushNanos < TimeUnit.MILLISECONDS.toNanos(tokenFlushMs)) {
+            return;
+        }
+        try {
+            offsets().replaceOne(Filters.eq("_id", consumerId),
+                new BsonDocument("_id", new BsonString(consumerId))
+                    .append("token", resumeToken)
+                    .append("updatedAt", new BsonDateTime(System.currentTimeMillis())),
+                new ReplaceOptions().upsert(true));
+            flushedToken = resumeToken;
+            lastFlushNanos = now;
+        } catch (MongoException e) {
+            log.warn("Could not persist the change stream resume token: {}", e.getMessage());
+        }
+    }
+
+    private MongoCollection<BsonDocument> offsets() {
+        return mongoTemplate.getDb().getCollection(OFFSETS_COLLECTION, BsonDocument.class);
+    }
+
+    private void backOff() {
+        restarts.increment();
+        if (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryBackoffMs));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+//src/main/java/com/algoarena/algoarena/UserChangeStreamEvent.java
+
+package com.algoarena.algoarena;
+
+/**
+ * A change to the users collection seen through the change stream (UserChangeStream)
+ *
+ * Unlike UserChangedEvent this covers writes from every node, including this one, so
+ * listeners must be idempotent (e.g. compare profileVersion). user is the document after the
+ * change, null for DELETED. RESYNC means changes may have been missed (the stream could not
+ * resume), listeners should drop their node-local user state.
+ * Published on the change stream thread: listeners must only hand off work.
+ */
+public record UserChangeStreamEvent(Type type, String userId, User user) {
+
+    public enum Type {
+        INSERTED,
+        UPDATED,
+        DELETED,
+        RESYNC
+    }
+}
@@ -0,0 +1,29 @@
+//src/main/java/com/algoarena/algoarena/UserChangedEvent.java
+
+package com.algoarena.algoarena;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by UserService after a user document changed
+ * Listeners run synchronously on the publishing thread, so they must only hand off work
+ * previousLastLoginAt is the value before the change (null for new users)
+ */
+public record UserChangedEvent(Type type, User user, LocalDateTime previousLastLoginAt) {
+
+    public enum Type {
+        CREATED,
+        LOGGED_IN,
+        UPDATED,
+        DELETED,
+        TOKENS_REVOKED
+    }
+
+    public static UserChangedEvent of(Type type, User user, LocalDateTime previousLastLoginAt) {
+        return new UserChangedEvent(type, user, previousLastLoginAt);
+    }
+
+    public String userId() {
+        return user.getId();
+    }
+}
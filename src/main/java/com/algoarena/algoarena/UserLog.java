@@ -0,0 +1,560 @@
+//src/main/java/com/algoarena/algoarena/UserLog.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped log of user records with in-memory indexes
+ *
+ * Record: [int body length][int CRC32C of body][body], the body being a PUT (type byte and
+ * all user fields) or a DELETE (type byte and id). The length is written last, and a record
+ * only counts if its CRC matches, so a torn write at the tail is detected on open: recovery
+ * replays records up to the first invalid one, then zeroes the rest of the file.
+ *
+ * Indexes: id -> record offset, providerId -> id (unique), email and username -> ids. Reads
+ * take no lock: a record is fully written before its offset is published, and records are
+ * never modified. Writes are serialized by a lock. The mapping grows by doubling, up to 2 GB.
+ *
+ * compact() rewrites the live records into a new file and renames it over the log (atomic);
+ * the file and indexes of one log are a Generation, swapped as a whole, so concurrent readers
+ * keep using the previous mapping. A leftover ".compact" file is an interrupted compaction
+ * and is deleted on open, the log itself is still complete.
+ */
+public final class UserLog implements Closeable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * One log file with its mapping and indexes
+     */
+    private static final class Generation {
+        final FileChannel channel;
+        volatile MappedByteBuffer buffer; // replaced when the mapping grows, always a prefix-compatible view
+
+        final ConcurrentHashMap<String, Integer> offsetsById = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, String> idsByProviderId = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Set<String>> idsByEmail = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Set<String>> idsByUsername = new ConcurrentHashMap<>();
+
+        // Written under the write lock, volatile for the metrics
+        volatile int writePosition;
+        volatile long liveBytes;
+
+        Generation(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path path;
+    private final int initialCapacity;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Generation current;
+    private long recoveredTailBytes;
+
+    private UserLog(Path path, int initialCapacity) {
+        this.path = path;
+        this.initialCapacity = initialCapacity;
+    }
+
+    /**
+     * Opens (or creates) the log at path, replaying it into the indexes
+     */
+    public static UserLog open(Path path, int initialCapacity) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Files.deleteIfExists(compactionPath(path));
+
+        UserLog log = new UserLog(path, Math.max(4096, initialCapacity));
+        log.current = log.recover();
+        return log;
+    }
+
+    // ----- reads -----
+
+    public User get(String id) {
+        Generation g = current;
+        Integer offset = id != null ? g.offsetsById.get(id) : null;
+        return offset != null ? readUser(g.buffer, offset) : null;
+    }
+
+    public User findByProviderId(String providerId) {
+        Generation g = current;
+        String id = providerId != null ? g.idsByProviderId.get(providerId) : null;
+        Integer offset = id != null ? g.offsetsById.get(id) : null;
+        return offset != null ? readUser(g.buffer, offset) : null;
+    }
+
+    public boolean containsId(String id) {
+        return id != null && current.offsetsById.containsKey(id);
+    }
+
+    public boolean containsProviderId(String providerId) {
+        return providerId != null && current.idsByProviderId.containsKey(providerId);
+    }
+
+    public User findByEmail(String email) {
+        return findBySecondary(email, g -> g.idsByEmail, User::getEmail);
+    }
+
+    public User findByUsername(String username) {
+        return findBySecondary(username, g -> g.idsByUsername, User::getUsername);
+    }
+
+    public List<User> findAll() {
+        Generation g = current;
+        List<User> users = new ArrayList<>(g.offsetsById.size());
+        g.offsetsById.values().forEach(offset -> users.add(readUser(g.buffer, offset)));
+        return users;
+    }
+
+    public int size() {
+        return current.offsetsById.size();
+    }
+
+    /**
+     * Bytes of the log in use (live and dead records)
+     */
+    public long logBytes() {
+        return current.writePosition;
+    }
+
+    /**
+     * Share of the log taken by overwritten and deleted records
+     */
+    public double garbageRatio() {
+        Generation g = current;
+        int written = g.writePosition;
+        return written == 0 ? 0 : 1 - (double) g.liveBytes / written;
+    }
+
+    /**
+     * Non-zero bytes cleared after the last valid record when the log was opened (torn tail)
+     */
+    public long recoveredTailBytes() {
+        return recoveredTailBytes;
+    }
+
+    // ----- writes -----
+
+    /**
+     * Inserts or replaces the user with user.getId(); DuplicateKeyException when another user
+     * already has its providerId
+     */
+    public void put(User user) {
+        Objects.requireNonNull(user.getId(), "id");
+        byte[] body = encode(user);
+
+        writeLock.lock();
+        try {
+            Generation g = current;
+            String owner = user.getProviderId() != null ? g.idsByProviderId.get(user.getProviderId()) : null;
+            if (owner != null && !owner.equals(user.getId())) {
+                throw new DuplicateKeyException("Duplicate providerId " + user.getProviderId());
+            }
+
+            Integer previousOffset = g.offsetsById.get(user.getId());
+            User previous = previousOffset != null ? readUser(g.buffer, previousOffset) : null;
+
+            int offset = append(g, body);
+            g.offsetsById.put(user.getId(), offset);
+            g.liveBytes += HEADER_BYTES + body.length;
+            if (previousOffset != null) {
+                g.liveBytes -= recordBytes(g.buffer, previousOffset);
+                unindex(g, previous);
+            }
+            index(g, user);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Like put, but stores the user with profileVersion one above the stored copy's (also set
+     * on user), so that concurrent writers of one user never store the same version twice
+     */
+    public void putVersioned(User user) {
+        writeLock.lock();
+        try {
+            Generation g = current;
+            Integer previousOffset = g.offsetsById.get(user.getId());
+            if (previousOffset != null) {
+                user.setProfileVersion(readUser(g.buffer, previousOffset).getProfileVersion() + 1);
+            }
+            put(user); // the lock is reentrant
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the user; false if there was none
+     */
+    public boolean delete(String id) {
+        writeLock.lock();
+        try {
+            Generation g = current;
+            Integer previousOffset = g.offsetsById.get(id);
+            if (previousOffset == null) {
+                return false;
+            }
+            User previous = readUser(g.buffer, previousOffset);
+
+            append(g, encodeDelete(id));
+            g.offsetsById.remove(id);
+            g.liveBytes -= recordBytes(g.buffer, previousOffset);
+            unindex(g, previous);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes written records to disk
+     */
+    public void force() {
+        current.buffer.force();
+    }
+
+    /**
+     * Rewrites the live records into a fresh file and swaps it in; writes wait meanwhile,
+     * reads continue on the previous generation
+     */
+    public void compact() throws IOException {
+        writeLock.lock();
+        try {
+            Generation old = current;
+            Path target = compactionPath(path);
+            Files.deleteIfExists(target);
+
+            FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int capacity = (int) Math.min(MAX_CAPACITY, Math.max(initialCapacity, old.liveBytes * 2));
+            Generation fresh = new Generation(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+            for (Integer offset : old.offsetsById.values()) {
+                User user = readUser(old.buffer, offset);
+                byte[] body = encode(user);
+                fresh.offsetsById.put(user.getId(), append(fresh, body));
+                fresh.liveBytes += HEADER_BYTES + body.length;
+                index(fresh, user);
+            }
+            fresh.buffer.force();
+
+            Files.move(target, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory();
+            current = fresh;
+            old.channel.close(); // its mapping stays valid for readers still holding it
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            current.buffer.force();
+            current.channel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ----- recovery -----
+
+    private Generation recover() throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size > MAX_CAPACITY) {
+            throw new IOException("User log " + path + " exceeds " + MAX_CAPACITY + " bytes");
+        }
+        Generation g = new Generation(channel,
+            channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(initialCapacity, (int) size)));
+        MappedByteBuffer buffer = g.buffer;
+
+        int position = 0;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - HEADER_BYTES
+                    || buffer.getInt(position + 4) != crc(buffer, position + HEADER_BYTES, length)) {
+                break;
+            }
+
+            if (buffer.get(position + HEADER_BYTES) == PUT) {
+                User user = readUser(buffer, position);
+                Integer previousOffset = g.offsetsById.put(user.getId(), position);
+                g.liveBytes += HEADER_BYTES + length;
+                if (previousOffset != null) {
+                    g.liveBytes -= recordBytes(buffer, previousOffset);
+                    unindex(g, readUser(buffer, previousOffset));
+                }
+                index(g, user);
+            } else {
+                String id = new Reader(buffer, position + HEADER_BYTES + 1).readString();
+                Integer previousOffset = g.offsetsById.remove(id);
+                if (previousOffset != null) {
+                    g.liveBytes -= recordBytes(buffer, previousOffset);
+                    unindex(g, readUser(buffer, previousOffset));
+                }
+            }
+            position += HEADER_BYTES + length;
+        }
+        g.writePosition = position;
+
+        // Whatever follows the last valid record is preallocated zeros or a torn write; the
+        // latter is cleared so a later record there cannot be mistaken for an older one
+        long cleared = 0;
+        for (int i = position; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+                cleared++;
+            }
+        }
+        if (cleared > 0) {
+            buffer.force();
+        }
+        recoveredTailBytes = cleared;
+        return g;
+    }
+
+    // ----- internals -----
+
+    private static Path compactionPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".compact");
+    }
+
+    private void forceDirectory() {
+        try (FileChannel directory = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Not supported on every platform, the rename itself is atomic
+        }
+    }
+
+    private User findBySecondary(String value, Function<Generation, ConcurrentHashMap<String, Set<String>>> index,
+                                 Function<User, String> field) {
+        Generation g = current;
+        Set<String> ids = value != null ? index.apply(g).get(value) : null;
+        if (ids == null) {
+            return null;
+        }
+        for (String id : ids) {
+            Integer offset = g.offsetsById.get(id);
+            User user = offset != null ? readUser(g.buffer, offset) : null;
+            // Re-checked: the index may be mid-update for this user
+            if (user != null && value.equals(field.apply(user))) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    private static void index(Generation g, User user) {
+        if (user.getProviderId() != null) {
+            g.idsByProviderId.put(user.getProviderId(), user.getId());
+        }
+        if (user.getEmail() != null) {
+            g.idsByEmail.computeIfAbsent(user.getEmail(), k -> ConcurrentHashMap.newKeySet()).add(user.getId());
+        }
+        if (user.getUsername() != null) {
+            g.idsByUsername.computeIfAbsent(user.getUsername(), k -> ConcurrentHashMap.newKeySet()).add(user.getId());
+        }
+    }
+
+    private static void unindex(Generation g, User user) {
+        if (user.getProviderId() != null) {
+            g.idsByProviderId.remove(user.getProviderId(), user.getId());
+        }
+        removeFrom(g.idsByEmail, user.getEmail(), user.getId());
+        removeFrom(g.idsByUsername, user.getUsername(), user.getId());
+    }
+
+    private static void removeFrom(ConcurrentHashMap<String, Set<String>> index, String key, String id) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Writes the record at the end of the log (write lock held), growing the mapping if needed
+     */
+    private int append(Generation g, byte[] body) {
+        int offset = g.writePosition;
+        long end = (long) offset + HEADER_BYTES + body.length;
+        if (end + 4 > g.buffer.capacity()) {
+            grow(g, end + 4);
+        }
+
+        MappedByteBuffer buffer = g.buffer;
+        buffer.put(offset + HEADER_BYTES, body);
+        buffer.putInt(offset + 4, crc(ByteBuffer.wrap(body), 0, body.length));
+        buffer.putInt(offset, body.length); // last: until now the record reads as the end of the log
+        g.writePosition = (int) end;
+        return offset;
+    }
+
+    private void grow(Generation g, long required) {
+        if (required > MAX_CAPACITY) {
+            throw new IllegalStateException("User log is full (" + MAX_CAPACITY + " bytes), compaction needed");
+        }
+        long capacity = Math.min(MAX_CAPACITY, Math.max(required, (long) g.buffer.capacity() * 2));
+        try {
+            g.buffer = g.channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not grow the user log", e);
+        }
+    }
+
+    private static int recordBytes(ByteBuffer buffer, int offset) {
+        return HEADER_BYTES + buffer.getInt(offset);
+    }
+
+    private static int crc(ByteBuffer buffer, int from, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(from, length));
+        return (int) crc.getValue();
+    }
+
+    // ----- codec -----
+
+    private static byte[] encode(User user) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(PUT);
+            writeString(out, user.getId());
+            writeString(out, user.getProviderId());
+            writeString(out, user.getProvider());
+            writeString(out, user.getName());
+            writeString(out, user.getEmail());
+            writeString(out, user.getUsername());
+            writeString(out, user.getAvatarUrl());
+            writeTime(out, user.getCreatedAt());
+            writeTime(out, user.getLastLoginAt());
+            writeTime(out, user.getTokensRevokedAt());
+            out.writeLong(user.getProfileVersion());
+            out.writeLong(user.getLoginCount());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by in-memory streams
+        }
+    }
+
+    private static byte[] encodeDelete(String id) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(DELETE);
+            writeString(out, id);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static User readUser(ByteBuffer buffer, int offset) {
+        Reader in = new Reader(buffer, offset + HEADER_BYTES + 1); // past the type byte
+        String id = in.readString();
+        User user = new User(in.readString(), in.readString(), in.readString(), in.readString(), in.readString(),
+            in.readString());
+        user.setId(id);
+        user.setCreatedAt(in.readTime());
+        user.setLastLoginAt(in.readTime());
+        user.setTokensRevokedAt(in.readTime());
+        user.setProfileVersion(in.readLong());
+        user.setLoginCount(in.readLong());
+        return user;
+    }
+
+    /**
+     * Absolute reads only, so one mapping can be shared by concurrent readers
+     */
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private int position;
+
+        Reader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        long readLong() {
+            long value = buffer.getLong(position);
+            position += 8;
+            return value;
+        }
+
+        String readString() {
+            int length = buffer.getInt(position);
+            position += 4;
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        LocalDateTime readTime() {
+            boolean present = buffer.get(position++) != 0;
+            if (!present) {
+                return null;
+            }
+            long seconds = buffer.getLong(position);
+            int nanos = buffer.getInt(position + 8);
+            position += 12;
+            return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+    }
+}
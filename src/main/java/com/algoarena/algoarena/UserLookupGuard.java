@@ -0,0 +1,305 @@
+//src/main/java/com/algoarena/algoarena/UserLookupGuard.java
+
+package com.algoarena.algoarena;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Deadline, bulkhead and circuit breaker for the user lookups on the authentication path
+ *
+ * A lookup runs on a virtual thread and the caller waits at most user-lookup.timeout-ms for
+ * it; a query that misses the deadline keeps its bulkhead permit until it actually returns,
+ * so a hanging MongoDB fills the bulkhead instead of the servlet thread pool. Timeouts, errors
+ * and slow calls feed a CircuitBreaker; while it is open, lookups fail immediately.
+ *
+ * Degraded mode: a lookup that cannot be answered falls back to the last user this node
+ * resolved for the providerId (kept up to date from UserChangedEvents, so local revocations
+ * and deletions apply), otherwise it throws LookupUnavailableException. JwtAuthenticationFilter
+ * then authenticates from the verified access token claims (fromTokenClaims), which cannot
+ * see revocations made since the token was issued. Only tokens issued within
+ * user-lookup.fallback.token-claims-max-age-ms qualify, which bounds that blind spot;
+ * user-lookup.fallback.token-claims turns the fallback off (as in production).
+ *
+ * Metrics: user.lookup.circuit.state (0 closed, 1 open, 2 half open), user.lookup.failures
+ * by reason and user.lookup.fallbacks by source.
+ */
+@Component
+public class UserLookupGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLookupGuard.class);
+
+    /**
+     * The user store could not answer in time and there is nothing to fall back on
+     */
+    public static class LookupUnavailableException extends RuntimeException {
+        public LookupUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-lookup.timeout-ms:250}")
+    private long timeoutMs;
+
+    @Value("${user-lookup.max-concurrent:256}")
+    private int maxConcurrent;
+
+    @Value("${user-lookup.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${user-lookup.fallback.token-claims:true}")
+    private boolean tokenClaimsFallback;
+
+    @Value("${user-lookup.fallback.token-claims-max-age-ms:900000}")
+    private long tokenClaimsMaxAgeMs;
+
+    @Value("${user-lookup.breaker.window-size:100}")
+    private int windowSize;
+
+    @Value("${user-lookup.breaker.minimum-calls:20}")
+    private int minimumCalls;
+
+    @Value("${user-lookup.breaker.failure-rate:0.5}")
+    private double failureRate;
+
+    @Value("${user-lookup.breaker.slow-call-rate:0.8}")
+    private double slowCallRate;
+
+    @Value("${user-lookup.breaker.slow-call-ms:100}")
+    private long slowCallMs;
+
+    @Value("${user-lookup.breaker.open-ms:5000}")
+    private long openMs;
+
+    @Value("${user-lookup.breaker.half-open-calls:5}")
+    private int halfOpenCalls;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentHashMap<String, User> lastKnownUsers = new ConcurrentHashMap<>();
+
+    private Semaphore bulkhead;
+    private CircuitBreaker breaker;
+
+    private Counter timeouts;
+    private Counter errors;
+    private Counter circuitOpen;
+    private Counter bulkheadFull;
+    private Counter cacheFallbacks;
+    private Counter claimsFallbacks;
+
+    @PostConstruct
+    void init() {
+        bulkhead = new Semaphore(maxConcurrent);
+        breaker = new CircuitBreaker(windowSize, minimumCalls, failureRate, slowCallRate, slowCallMs, openMs,
+            halfOpenCalls, state -> log.atWarn()
+                .setMessage("User lookup circuit breaker changed state")
+                .addKeyValue("event", "circuit_breaker_transition")
+                .addKeyValue("state", state)
+                .log());
+
+        Gauge.builder("user.lookup.circuit.state", breaker, b -> b.state().ordinal())
+            .description("User lookup circuit breaker: 0 closed, 1 open, 2 half open")
+            .register(meterRegistry);
+        timeouts = failureCounter("timeout");
+        errors = failureCounter("error");
+        circuitOpen = failureCounter("circuit_open");
+        bulkheadFull = failureCounter("bulkhead_full");
+        cacheFallbacks = fallbackCounter("cache");
+        claimsFallbacks = fallbackCounter("token_claims");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Bounded lookup of a user by providerId, answered from the last known user when the
+     * store is unavailable
+     */
+    public Optional<User> findUser(String providerId, Supplier<Optional<User>> query) {
+        try {
+            Optional<User> user = call(query);
+            if (user.isPresent()) {
+                remember(providerId, user.get());
+            } else {
+                lastKnownUsers.remove(providerId);
+            }
+            return user;
+        } catch (LookupUnavailableException e) {
+            User cached = providerId != null ? lastKnownUsers.get(providerId) : null;
+            if (cached == null) {
+                throw e;
+            }
+            cacheFallbacks.increment();
+            return Optional.of(cached);
+        }
+    }
+
+    /**
+     * Run a query with the deadline, the bulkhead and the circuit breaker
+     */
+    public <T> T call(Supplier<T> query) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadFull.increment();
+            throw new LookupUnavailableException("Too many user lookups in flight", null);
+        }
+        if (!breaker.tryAcquire()) {
+            bulkhead.release();
+            circuitOpen.increment();
+            throw new LookupUnavailableException("User lookup circuit breaker is open", null);
+        }
+
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return query.get();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            breaker.onResult(0, true);
+            throw new LookupUnavailableException("User lookup executor is shut down", e);
+        }
+
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            breaker.onResult(System.nanoTime() - start, false);
+            return result;
+        } catch (TimeoutException e) {
+            // Not cancelled: interrupting the driver would close the connection, the query finishes on its own
+            breaker.onResult(System.nanoTime() - start, true);
+            timeouts.increment();
+            throw new LookupUnavailableException("User lookup exceeded " + timeoutMs + " ms", e);
+        } catch (ExecutionException e) {
+            breaker.onResult(System.nanoTime() - start, true);
+            errors.increment();
+            throw new LookupUnavailableException("User lookup failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            breaker.onResult(System.nanoTime() - start, true);
+            throw new LookupUnavailableException("Interrupted while waiting for a user lookup", e);
+        }
+    }
+
+    /**
+     * Degraded-mode principal built from a verified access token, empty for refresh tokens,
+     * tokens issued more than token-claims-max-age-ms ago or when the fallback is disabled
+     */
+    public Optional<User> fromTokenClaims(String token) {
+        if (!tokenClaimsFallback) {
+            return Optional.empty();
+        }
+        Claims claims = jwtUtil.extractClaim(token, all -> all);
+        if ("refresh".equals(claims.get("tokenType", String.class))) {
+            return Optional.empty();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        if (issuedAt == null || System.currentTimeMillis() - issuedAt.getTime() > tokenClaimsMaxAgeMs) {
+            return Optional.empty();
+        }
+
+        User user = new User(claims.getSubject(), claims.get("provider", String.class), claims.get("name", String.class),
+            claims.get("email", String.class), claims.get("username", String.class), null);
+        user.setId(claims.get("userId", String.class));
+        claimsFallbacks.increment();
+        return Optional.of(user);
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        String providerId = event.user().getProviderId();
+        if (providerId == null) {
+            return;
+        }
+        if (event.type() == UserChangedEvent.Type.DELETED) {
+            lastKnownUsers.remove(providerId);
+        } else {
+            lastKnownUsers.computeIfPresent(providerId, (id, previous) -> event.user());
+        }
+    }
+
+    /**
+     * Writes from other nodes (UserChangeStream): refresh or drop the last known copies
+     */
+    @EventListener
+    public void onUserChangeStream(UserChangeStreamEvent event) {
+        switch (event.type()) {
+            case UPDATED -> {
+                if (event.user().getProviderId() != null) {
+                    lastKnownUsers.computeIfPresent(event.user().getProviderId(),
+                        (id, previous) -> event.user().getProfileVersion() >= previous.getProfileVersion() ? event.user() : previous);
+                }
+            }
+            case DELETED -> lastKnownUsers.values().removeIf(user -> user.getId() != null && user.getId().equals(event.userId()));
+            case RESYNC -> lastKnownUsers.clear();
+            default -> { }
+        }
+    }
+
+    private void remember(String providerId, User user) {
+        if (providerId == null) {
+            return;
+        }
+        if (lastKnownUsers.size() >= cacheSize && !lastKnownUsers.containsKey(providerId)) {
+            // Bounded: make room by dropping some entry, fallback coverage is best effort anyway
+            Iterator<String> keys = lastKnownUsers.keySet().iterator();
+            if (keys.hasNext()) {
+                lastKnownUsers.remove(keys.next());
+            }
+        }
+        lastKnownUsers.put(providerId, user);
+    }
+
+    private Counter failureCounter(String reason) {
+        return Counter.builder("user.lookup.failures")
+            .description("User lookups that could not be answered by the user store")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    private Counter fallbackCounter(String source) {
+        return Counter.builder("user.lookup.fallbacks")
+            .description("Degraded-mode answers to user lookups")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+}
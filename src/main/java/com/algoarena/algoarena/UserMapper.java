@@ -0,0 +1,139 @@
+//src/main/java/com/algoarena/algoarena/UserMapper.java
+
+package com.algoarena.algoarena;
+
+import com.algoarena.algoarena.ApiResponses.AdminUserView;
+import com.algoarena.algoarena.ApiResponses.DashboardData;
+import com.algoarena.algoarena.ApiResponses.DashboardResponse;
+import com.algoarena.algoarena.ApiResponses.TokenResponse;
+import com.algoarena.algoarena.ApiResponses.UpdatedUser;
+import com.algoarena.algoarena.ApiResponses.UserBadge;
+import com.algoarena.algoarena.ApiResponses.UserProfile;
+import com.algoarena.algoarena.ApiResponses.UserStats;
+import com.algoarena.algoarena.ApiResponses.UserSummary;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response mapping shared by the servlet and reactive controllers
+ */
+public final class UserMapper {
+
+    // Access tokens live 24 hours
+    public static final long ACCESS_TOKEN_EXPIRES_IN_SECONDS = 86400;
+
+    // Same output as Jackson's default LocalDateTime serializer
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final List<String> QUICK_ACTIONS = List.of(
+        "View Profile",
+        "Update Settings",
+        "View Activity",
+        "Logout"
+    );
+
+    private UserMapper() {}
+
+    /**
+     * Basic user info returned together with freshly issued tokens
+     */
+    public static UserSummary toSummary(User user) {
+        return new UserSummary(
+            user.getId(),
+            user.getName(),
+            user.getEmail() != null ? user.getEmail() : "",
+            user.getUsername(),
+            user.getProvider(),
+            user.getAvatarUrl() != null ? user.getAvatarUrl() : ""
+        );
+    }
+
+    /**
+     * Full profile view (summary plus timestamps)
+     */
+    public static UserProfile toProfile(User user) {
+        return new UserProfile(
+            user.getId(),
+            user.getName(),
+            user.getEmail() != null ? user.getEmail() : "",
+            user.getUsername(),
+            user.getProvider(),
+            user.getAvatarUrl() != null ? user.getAvatarUrl() : "",
+            format(user.getCreatedAt()),
+            format(user.getLastLoginAt())
+        );
+    }
+
+    /**
+     * Short view returned after a profile update
+     */
+    public static UpdatedUser toUpdated(User user) {
+        return new UpdatedUser(
+            user.getId(),
+            user.getName(),
+            user.getUsername(),
+            user.getEmail() != null ? user.getEmail() : "",
+            format(user.getLastLoginAt())
+        );
+    }
+
+    /**
+     * Admin listing view (same fields the raw entity used to expose)
+     */
+    public static AdminUserView toAdminView(User user) {
+        return new AdminUserView(
+            user.getId(),
+            user.getProviderId(),
+            user.getProvider(),
+            user.getName(),
+            user.getEmail(),
+            user.getUsername(),
+            user.getAvatarUrl(),
+            format(user.getCreatedAt()),
+            format(user.getLastLoginAt())
+        );
+    }
+
+    public static List<AdminUserView> toAdminViews(Iterable<User> users) {
+        List<AdminUserView> views = new ArrayList<>();
+        for (User user : users) {
+            views.add(toAdminView(user));
+        }
+        return views;
+    }
+
+    /**
+     * Token response body for a login or token generation
+     */
+    public static TokenResponse toTokenResponse(String accessToken, String refreshToken, User user) {
+        return new TokenResponse(accessToken, refreshToken, "Bearer", ACCESS_TOKEN_EXPIRES_IN_SECONDS,
+            user != null ? toSummary(user) : null);
+    }
+
+    /**
+     * Dashboard payload for the given user
+     */
+    public static DashboardResponse toDashboard(User user) {
+        DashboardData data = new DashboardData(
+            "Welcome back, " + user.getName() + "!",
+            new UserStats(
+                String.valueOf(user.getLoginCount()),
+                "Member since " + user.getCreatedAt().toLocalDate(),
+                "Signed in with " + user.getProvider()
+            ),
+            QUICK_ACTIONS
+        );
+
+        return new DashboardResponse(true, data, new UserBadge(
+            user.getName(),
+            user.getAvatarUrl() != null ? user.getAvatarUrl() : ""
+        ));
+    }
+
+    private static String format(LocalDateTime timestamp) {
+        return timestamp != null ? TIMESTAMP_FORMAT.format(timestamp) : null;
+    }
+}
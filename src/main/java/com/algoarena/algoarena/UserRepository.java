@@ -5,10 +5,11 @@ package com.algoarena.algoarena;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     
     // Find user by provider ID (Google ID or GitHub ID)
     Optional<User> findByProviderId(String providerId);
@@ -24,4 +25,16 @@ public interface UserRepository extends MongoRepository<User, String> {
     
     // Check if user exists by provider ID
     boolean existsByProviderId(String providerId);
+    
+    // Only id and profileVersion, for conditional GETs
+    Optional<ProfileVersionView> findProfileVersionByProviderId(String providerId);
+    
+    /**
+     * Projection used to answer If-None-Match without loading the whole document
+     */
+    interface ProfileVersionView {
+        String getId();
+        Long getProfileVersion(); // null for documents saved before versioning
+        LocalDateTime getTokensRevokedAt();
+    }
 }
\ No newline at end of file
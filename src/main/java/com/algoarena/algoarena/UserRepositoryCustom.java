@@ -0,0 +1,32 @@
+//src/main/java/com/algoarena/algoarena/UserRepositoryCustom.java
+
+package com.algoarena.algoarena;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * User queries with a read preference per query class (ReadPreferenceProperties)
+ * Implemented by UserRepositoryCustomImpl, mixed into UserRepository
+ */
+public interface UserRepositoryCustom {
+
+    // Identity lookup: read-preference.identity, causally after this user's own recent writes
+    Optional<User> findIdentityByProviderId(String providerId);
+
+    // Profile version for conditional GETs, same rules as findIdentityByProviderId
+    Optional<UserRepository.ProfileVersionView> findIdentityVersionByProviderId(String providerId);
+
+    // Load for read-modify-write: read-preference.profile
+    Optional<User> findForUpdate(String userId);
+
+    // Listings: read-preference.listing
+    List<User> findAllForListing();
+
+    // Search by email: read-preference.search
+    Optional<User> searchByEmail(String email);
+
+    // Save, remembering the write's operation time so the user's next reads can wait for it;
+    // an update increments the stored profileVersion atomically and sets the result on user
+    <S extends User> S saveTracked(S user);
+}
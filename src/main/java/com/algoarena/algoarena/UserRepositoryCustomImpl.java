@@ -0,0 +1,181 @@
+//src/main/java/com/algoarena/algoarena/UserRepositoryCustomImpl.java
+
+package com.algoarena.algoarena;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Read preferences per query class, and read-your-writes on secondaries
+ *
+ * When the identity class may read from secondaries, saveTracked() runs the write in a
+ * causally consistent session and remembers its operation and cluster time per providerId
+ * for read-preference.causal-window-seconds. The user's identity reads in that window run in
+ * a session advanced to those times with majority read concern, so the selected member waits
+ * until it has applied the write (afterClusterTime) instead of returning the old document.
+ * Tracking is per node; with the default primary identity reads nothing is tracked.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder()
+        .causallyConsistent(true)
+        .build();
+
+    private record TrackedWrite(BsonTimestamp operationTime, BsonDocument clusterTime, long atNanos) {}
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReadPreferenceProperties properties;
+
+    private final ConcurrentHashMap<String, TrackedWrite> recentWrites = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<User> findIdentityByProviderId(String providerId) {
+        return Optional.ofNullable(identityRead(providerId, (operations, query) -> operations.findOne(query, User.class)));
+    }
+
+    @Override
+    public Optional<UserRepository.ProfileVersionView> findIdentityVersionByProviderId(String providerId) {
+        return Optional.ofNullable(identityRead(providerId, (operations, query) -> operations.query(User.class)
+            .as(UserRepository.ProfileVersionView.class)
+            .matching(query)
+            .firstValue()));
+    }
+
+    @Override
+    public Optional<User> findForUpdate(String userId) {
+        Query query = Query.query(Criteria.where("id").is(userId))
+            .withReadPreference(properties.getProfile().toReadPreference());
+        return Optional.ofNullable(mongoTemplate.findOne(query, User.class));
+    }
+
+    @Override
+    public List<User> findAllForListing() {
+        return mongoTemplate.find(new Query().withReadPreference(properties.getListing().toReadPreference()), User.class);
+    }
+
+    @Override
+    public Optional<User> searchByEmail(String email) {
+        Query query = Query.query(Criteria.where("email").is(email))
+            .withReadPreference(properties.getSearch().toReadPreference());
+        return Optional.ofNullable(mongoTemplate.findOne(query, User.class));
+    }
+
+    @Override
+    public <S extends User> S saveTracked(S user) {
+        if (!properties.getIdentity().toReadPreference().isSecondaryOk()) {
+            return saveVersioned(mongoTemplate, user);
+        }
+
+        try (ClientSession session = mongoTemplate.getMongoDatabaseFactory().getSession(CAUSAL)) {
+            S saved = saveVersioned(mongoTemplate.withSession(session), user);
+            // No operation time on a standalone server, there are no secondaries to wait for either
+            if (saved.getProviderId() != null && session.getOperationTime() != null) {
+                track(saved.getProviderId(), new TrackedWrite(session.getOperationTime(), session.getClusterTime(), System.nanoTime()));
+            }
+            return saved;
+        }
+    }
+
+    /**
+     * Inserts a new user; for an existing one, sets every stored field from user and
+     * increments profileVersion in the same update, so that each version is exactly one
+     * document state even when two writers modified copies of the same version
+     */
+    private static <S extends User> S saveVersioned(MongoOperations operations, S user) {
+        if (user.getId() == null) {
+            return operations.insert(user);
+        }
+        Query byId = Query.query(Criteria.where("id").is(user.getId()));
+        byId.fields().include("profileVersion");
+        User stored = operations.findAndModify(byId, versionedUpdate(operations.getConverter(), user),
+            FindAndModifyOptions.options().returnNew(true).upsert(true), User.class);
+        user.setProfileVersion(stored.getProfileVersion());
+        return user;
+    }
+
+    /**
+     * $set of every mapped field of user ($unset for nulls) and $inc of profileVersion
+     * Shared with ReactiveUserService
+     */
+    static Update versionedUpdate(MongoConverter converter, User user) {
+        Document document = new Document();
+        converter.write(user, document);
+        Update update = new Update();
+        for (MongoPersistentProperty property : converter.getMappingContext().getRequiredPersistentEntity(User.class)) {
+            String field = property.getFieldName();
+            if (property.isIdProperty() || field.equals("profileVersion")) {
+                continue;
+            }
+            Object value = document.get(field);
+            if (value != null) {
+                update.set(field, value);
+            } else {
+                update.unset(field);
+            }
+        }
+        return update.inc("profileVersion", 1);
+    }
+
+    private <T> T identityRead(String providerId, BiFunction<MongoOperations, Query, T> read) {
+        ReadPreference preference = properties.getIdentity().toReadPreference();
+        Query query = Query.query(Criteria.where("providerId").is(providerId)).withReadPreference(preference);
+
+        TrackedWrite write = preference.isSecondaryOk() ? recentWrite(providerId) : null;
+        if (write == null) {
+            return read.apply(mongoTemplate, query);
+        }
+
+        try (ClientSession session = mongoTemplate.getMongoDatabaseFactory().getSession(CAUSAL)) {
+            session.advanceClusterTime(write.clusterTime());
+            session.advanceOperationTime(write.operationTime());
+            return read.apply(mongoTemplate.withSession(session), query.withReadConcern(ReadConcern.MAJORITY));
+        }
+    }
+
+    private TrackedWrite recentWrite(String providerId) {
+        TrackedWrite write = providerId != null ? recentWrites.get(providerId) : null;
+        if (write != null && isExpired(write, System.nanoTime())) {
+            recentWrites.remove(providerId, write);
+            return null;
+        }
+        return write;
+    }
+
+    private void track(String providerId, TrackedWrite write) {
+        if (recentWrites.size() >= properties.getCausalMaxTrackedUsers() && !recentWrites.containsKey(providerId)) {
+            long now = System.nanoTime();
+            recentWrites.values().removeIf(tracked -> isExpired(tracked, now));
+            if (recentWrites.size() >= properties.getCausalMaxTrackedUsers()) {
+                return; // reads for this user may lag by up to the identity max staleness
+            }
+        }
+        recentWrites.put(providerId, write);
+    }
+
+    private boolean isExpired(TrackedWrite write, long nowNanos) {
+        return nowNanos - write.atNanos() > TimeUnit.SECONDS.toNanos(properties.getCausalWindowSeconds());
+    }
+}
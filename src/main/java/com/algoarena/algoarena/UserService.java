@@ -2,10 +2,17 @@
 
 package com.algoarena.algoarena;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
@@ -14,31 +21,66 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private UserLookupGuard lookupGuard;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Concurrent lookups of one providerId (filter + controller, several tabs) share one query
+    @Value("${user-lookup.single-flight.max-keys:10000}")
+    private int singleFlightMaxKeys;
+    
+    private SingleFlight<String, Optional<User>> providerIdLookups;
+    
+    @PostConstruct
+    void init() {
+        providerIdLookups = new SingleFlight<>(singleFlightMaxKeys);
+        FunctionCounter.builder("user.lookup.coalesced", providerIdLookups, SingleFlight::coalesced)
+            .description("findByProviderId calls answered by a concurrent identical query (queries saved)")
+            .register(meterRegistry);
+        FunctionCounter.builder("user.lookup.executed", providerIdLookups, SingleFlight::executed)
+            .description("findByProviderId queries actually issued")
+            .register(meterRegistry);
+        FunctionCounter.builder("user.lookup.single_flight.bypassed", providerIdLookups, SingleFlight::bypassed)
+            .description("findByProviderId calls run uncoalesced because too many keys were in flight")
+            .register(meterRegistry);
+        Gauge.builder("user.lookup.in_flight", providerIdLookups, SingleFlight::inFlight)
+            .description("Distinct providerIds with a lookup in flight")
+            .register(meterRegistry);
+    }
+    
     /**
      * Process OAuth2 user login - either create new user or update existing one
      */
     public User processOAuth2User(OAuth2User oauth2User, String provider) {
         String providerId = extractProviderId(oauth2User, provider);
         
-        // Check if user already exists
+        // Check if user already exists (derived query: always the primary, this is read-modify-write)
         Optional<User> existingUser = userRepository.findByProviderId(providerId);
         
         if (existingUser.isPresent()) {
             // User exists - update last login time
             User user = existingUser.get();
-            user.updateLastLogin();
-            return userRepository.save(user);
+            LocalDateTime previousLastLoginAt = user.getLastLoginAt();
+            user.recordLogin();
+            return publish(UserChangedEvent.Type.LOGGED_IN, userRepository.saveTracked(user), previousLastLoginAt);
         } else {
             // New user - create and save
             User newUser = createUserFromOAuth2(oauth2User, provider, providerId);
-            return userRepository.save(newUser);
+            newUser.recordLogin();
+            return publish(UserChangedEvent.Type.CREATED, userRepository.saveTracked(newUser), null);
         }
     }
     
     /**
      * Extract provider ID based on OAuth2 provider
+     * (the extract* mappers are package-private for the JMH benchmarks)
      */
-    private String extractProviderId(OAuth2User oauth2User, String provider) {
+    String extractProviderId(OAuth2User oauth2User, String provider) {
         if ("google".equals(provider)) {
             // Google uses 'sub' field for unique ID
             return oauth2User.getAttribute("sub");
@@ -65,7 +107,7 @@ public class UserService {
     /**
      * Extract name from OAuth2 user data
      */
-    private String extractName(OAuth2User oauth2User, String provider) {
+    String extractName(OAuth2User oauth2User, String provider) {
         if ("google".equals(provider)) {
             return oauth2User.getAttribute("name");
         } else if ("github".equals(provider)) {
@@ -79,14 +121,14 @@ public class UserService {
     /**
      * Extract email from OAuth2 user data
      */
-    private String extractEmail(OAuth2User oauth2User, String provider) {
+    String extractEmail(OAuth2User oauth2User, String provider) {
         return oauth2User.getAttribute("email");
     }
     
     /**
      * Extract username from OAuth2 user data
      */
-    private String extractUsername(OAuth2User oauth2User, String provider) {
+    String extractUsername(OAuth2User oauth2User, String provider) {
         if ("google".equals(provider)) {
             // Google doesn't have username, use name or email
             String name = oauth2User.getAttribute("name");
@@ -100,7 +142,7 @@ public class UserService {
     /**
      * Extract avatar URL from OAuth2 user data
      */
-    private String extractAvatarUrl(OAuth2User oauth2User, String provider) {
+    String extractAvatarUrl(OAuth2User oauth2User, String provider) {
         if ("google".equals(provider)) {
             return oauth2User.getAttribute("picture");
         } else if ("github".equals(provider)) {
@@ -110,59 +152,84 @@ public class UserService {
     }
     
     /**
-     * Find user by provider ID
+     * Find user by provider ID (auth path: deadline-bounded, see UserLookupGuard)
+     * Throws UserLookupGuard.LookupUnavailableException when the store cannot answer in time
+     * and this node has no last known copy of the user
+     * Concurrent calls for the same providerId are coalesced, the returned user is shared
+     * with them and must not be modified
      */
     public Optional<User> findByProviderId(String providerId) {
-        return userRepository.findByProviderId(providerId);
+        return providerIdLookups.execute(providerId,
+            () -> lookupGuard.findUser(providerId, () -> userRepository.findIdentityByProviderId(providerId)));
     }
     
     /**
      * Find user by email
      */
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userRepository.searchByEmail(email);
     }
     
     /**
      * Get all users (for admin purposes)
      */
     public Iterable<User> getAllUsers() {
-        return userRepository.findAll();
+        return userRepository.findAllForListing();
     }
     
     /**
      * Update user profile information
      */
     public User updateUser(User user) {
+        LocalDateTime previousLastLoginAt = user.getLastLoginAt();
         user.updateLastLogin(); // Update the last modified time
-        return userRepository.save(user);
+        return publish(UserChangedEvent.Type.UPDATED, userRepository.saveTracked(user), previousLastLoginAt);
     }
     
     /**
      * Update specific user fields by ID
      */
     public Optional<User> updateUserById(String userId, String name, String username) {
-        Optional<User> userOpt = userRepository.findById(userId);
+        Optional<User> userOpt = userRepository.findForUpdate(userId);
         
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            
-            if (name != null && !name.trim().isEmpty()) {
-                user.setName(name.trim());
-            }
-            
-            if (username != null && !username.trim().isEmpty()) {
-                user.setUsername(username.trim());
-            }
-            
-            user.updateLastLogin(); // Update last modified time
-            User savedUser = userRepository.save(user);
-            return Optional.of(savedUser);
+            LocalDateTime previousLastLoginAt = user.getLastLoginAt();
+            applyProfileUpdates(user, name, username);
+            User savedUser = userRepository.saveTracked(user);
+            return Optional.of(publish(UserChangedEvent.Type.UPDATED, savedUser, previousLastLoginAt));
         }
         
         return Optional.empty();
     }
     
+    /**
+     * Apply name/username edits to a user (shared with the reactive controllers)
+     */
+    static void applyProfileUpdates(User user, String name, String username) {
+        if (name != null && !name.trim().isEmpty()) {
+            user.setName(name.trim());
+        }
+        
+        if (username != null && !username.trim().isEmpty()) {
+            user.setUsername(username.trim());
+        }
+        
+        user.updateLastLogin(); // Update last modified time
+    }
+    
+    /**
+     * Current profile version of a user, loading only the id and version fields
+     * Empty when the store cannot answer in time: callers skip the conditional GET
+     */
+    public Optional<UserRepository.ProfileVersionView> findProfileVersion(String providerId) {
+        try {
+            return lookupGuard.call(() -> userRepository.findIdentityVersionByProviderId(providerId));
+        } catch (UserLookupGuard.LookupUnavailableException e) {
+            return Optional.empty();
+        }
+    }
+    
     /**
      * Find user by ID
      */
@@ -174,6 +241,28 @@ public class UserService {
      * Delete user by ID
      */
     public void deleteUser(String userId) {
+        Optional<User> userOpt = userRepository.findForUpdate(userId);
         userRepository.deleteById(userId);
+        userOpt.ifPresent(user -> publish(UserChangedEvent.Type.DELETED, user, user.getLastLoginAt()));
+    }
+    
+    /**
+     * Reject every token issued to this user so far ("log out everywhere")
+     */
+    public Optional<User> revokeTokens(String userId) {
+        Optional<User> userOpt = userRepository.findForUpdate(userId);
+        
+        if (userOpt.isPresent()) {
+            User user = userOpt.get();
+            user.setTokensRevokedAt(LocalDateTime.now());
+            return Optional.of(publish(UserChangedEvent.Type.TOKENS_REVOKED, userRepository.saveTracked(user), user.getLastLoginAt()));
+        }
+        
+        return Optional.empty();
+    }
+    
+    private User publish(UserChangedEvent.Type type, User user, LocalDateTime previousLastLoginAt) {
+        eventPublisher.publishEvent(UserChangedEvent.of(type, user, previousLastLoginAt));
+        return user;
     }
 }
\ No newline at end of file
@@ -0,0 +1,328 @@
+//src/main/java/com/algoarena/algoarena/UserStatistics.java
+
+package com.algoarena.algoarena;
+
+import com.algoarena.algoarena.ApiResponses.ActiveUsers;
+import com.algoarena.algoarena.ApiResponses.PeriodCount;
+import com.algoarena.algoarena.ApiResponses.ProviderCount;
+import com.algoarena.algoarena.ApiResponses.UserStatsResponse;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * User base counters for the admin stats endpoint, maintained from UserChangedEvents
+ *
+ * Totals per provider, signups per month and per day, and a histogram of users by the day of
+ * their last login (so "active in the last N days" is a sum of N buckets). A scheduled
+ * aggregation over the users collection rebuilds everything and swaps it in, correcting any
+ * drift (missed events, writes from other nodes). Readers only ever see the counters.
+ *
+ * With change-stream.enabled, other nodes' signups are counted as they happen
+ * (UserChangeStreamEvent), and a RESYNC of the stream triggers a reconcile.
+ */
+@Component
+public class UserStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatistics.class);
+
+    // Daily signups and last-login buckets are kept for this many days
+    static final int DAILY_WINDOW_DAYS = 90;
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    // Inserts only one listener has seen so far are forgotten after this long, once there are many
+    private static final int MAX_INSERTS_SEEN_ONCE = 10_000;
+    private static final long INSERT_SEEN_ONCE_TTL_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    /**
+     * One generation of counters; reconciliation replaces the whole object
+     */
+    static final class Counters {
+        final ConcurrentHashMap<String, LongAdder> usersByProvider = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, LongAdder> signupsByMonth = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<LocalDate, LongAdder> signupsByDay = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<LocalDate, LongAdder> usersByLastLoginDay = new ConcurrentHashMap<>();
+        final String reconciledAt;
+
+        Counters(String reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+
+        static void add(ConcurrentHashMap<String, LongAdder> counters, String key, long delta) {
+            counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+
+        static void add(ConcurrentHashMap<LocalDate, LongAdder> counters, LocalDate day, long delta) {
+            // Days that already fell out of the window are ignored, not resurrected
+            if (day != null && !day.isBefore(LocalDate.now().minusDays(DAILY_WINDOW_DAYS - 1))) {
+                counters.computeIfAbsent(day, d -> new LongAdder()).add(delta);
+            }
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${admin-stats.reconcile.enabled:true}")
+    private boolean reconcileEnabled;
+
+    @Value("${change-stream.enabled:false}")
+    private boolean changeStreamEnabled;
+
+    private volatile Counters counters = new Counters(null);
+
+    // Change stream on: this node's inserts reach both listeners, in either order (userId -> nanoTime)
+    private final ConcurrentHashMap<String, Long> insertsSeenOnce = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        User user = event.user();
+        Counters current = counters;
+        switch (event.type()) {
+            case CREATED -> {
+                if (firstSighting(user.getId())) {
+                    addUser(current, user, 1);
+                }
+            }
+            case DELETED -> addUser(current, user, -1);
+            default -> {
+                // Logins and profile updates move the user to another last-login bucket
+                LocalDate previousDay = dayOf(event.previousLastLoginAt());
+                LocalDate currentDay = dayOf(user.getLastLoginAt());
+                if (currentDay != null && !currentDay.equals(previousDay)) {
+                    Counters.add(current.usersByLastLoginDay, previousDay, -1);
+                    Counters.add(current.usersByLastLoginDay, currentDay, 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes seen through the change stream, from every node including this one
+     * Inserts are counted here or in onUserChanged, whichever sees them first. Other nodes'
+     * logins, updates and deletes are left to reconcile: the change event carries neither the
+     * previous last login nor the deleted document, so they cannot be applied as deltas.
+     */
+    @EventListener
+    public void onUserChangeStream(UserChangeStreamEvent event) {
+        switch (event.type()) {
+            case INSERTED -> {
+                if (firstSighting(event.userId())) {
+                    addUser(counters, event.user(), 1);
+                }
+            }
+            // Changes may have been missed; runs off the change stream thread
+            case RESYNC -> taskScheduler.schedule(this::reconcile, Instant.now());
+            default -> { }
+        }
+    }
+
+    /**
+     * Current figures; activeDays adds one more "active in the last N days" entry (1..90)
+     */
+    public UserStatsResponse snapshot(Integer activeDays) {
+        Counters current = counters;
+        LocalDate today = LocalDate.now();
+
+        List<ProviderCount> usersByProvider = new ArrayList<>();
+        long totalUsers = 0;
+        for (Map.Entry<String, Long> entry : sorted(current.usersByProvider).entrySet()) {
+            usersByProvider.add(new ProviderCount(entry.getKey(), entry.getValue()));
+            totalUsers += entry.getValue();
+        }
+
+        List<PeriodCount> signupsByMonth = new ArrayList<>();
+        sorted(current.signupsByMonth).forEach((month, count) -> signupsByMonth.add(new PeriodCount(month, count)));
+
+        List<PeriodCount> signupsByDay = new ArrayList<>();
+        sorted(current.signupsByDay).forEach((day, count) -> {
+            if (count > 0) {
+                signupsByDay.add(new PeriodCount(day.toString(), count));
+            }
+        });
+
+        List<ActiveUsers> activeUsers = new ArrayList<>();
+        for (int days : new int[] {1, 7, 30}) {
+            activeUsers.add(new ActiveUsers(days, activeInLastDays(current, today, days)));
+        }
+        if (activeDays != null && activeDays >= 1 && activeDays <= DAILY_WINDOW_DAYS
+                && activeDays != 1 && activeDays != 7 && activeDays != 30) {
+            activeUsers.add(new ActiveUsers(activeDays, activeInLastDays(current, today, activeDays)));
+        }
+
+        return new UserStatsResponse(true, totalUsers, usersByProvider, signupsByMonth, signupsByDay,
+            activeUsers, current.reconciledAt);
+    }
+
+    /**
+     * Rebuild all counters from the users collection and swap them in
+     * Events applied to the old counters while this runs are dropped with them;
+     * whatever they changed is already part of the aggregation or of the next one
+     * The first run starts with the scheduler, off the startup path: readiness does not wait for it
+     */
+    @Scheduled(fixedDelayString = "${admin-stats.reconcile-interval-ms:3600000}",
+               initialDelayString = "${admin-stats.reconcile-initial-delay-ms:0}")
+    public void reconcile() {
+        if (!reconcileEnabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            Counters rebuilt = new Counters(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            Date windowStart = Date.from(LocalDate.now().minusDays(DAILY_WINDOW_DAYS - 1)
+                .atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+            // Group by provider
+            aggregate(Aggregation.newAggregation(
+                Aggregation.group("provider").count().as("count")
+            ), (key, count) -> Counters.add(rebuilt.usersByProvider, key != null ? key : "unknown", count));
+
+            // Signups per month, all time
+            aggregate(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("createdAt").ne(null)),
+                Aggregation.project().and(formatted("createdAt", "%Y-%m")).as("period"),
+                Aggregation.group("period").count().as("count")
+            ), (key, count) -> {
+                if (key != null) {
+                    Counters.add(rebuilt.signupsByMonth, key, count);
+                }
+            });
+
+            // Signups per day inside the window
+            aggregate(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("createdAt").gte(windowStart)),
+                Aggregation.project().and(formatted("createdAt", "%Y-%m-%d")).as("period"),
+                Aggregation.group("period").count().as("count")
+            ), (key, count) -> {
+                if (key != null) {
+                    Counters.add(rebuilt.signupsByDay, LocalDate.parse(key), count);
+                }
+            });
+
+            // Users by last login day inside the window
+            aggregate(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("lastLoginAt").gte(windowStart)),
+                Aggregation.project().and(formatted("lastLoginAt", "%Y-%m-%d")).as("period"),
+                Aggregation.group("period").count().as("count")
+            ), (key, count) -> {
+                if (key != null) {
+                    Counters.add(rebuilt.usersByLastLoginDay, LocalDate.parse(key), count);
+                }
+            });
+
+            counters = rebuilt;
+            log.info("User statistics reconciled in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("User statistics reconciliation failed, keeping incremental counters: {}", e.getMessage());
+        }
+    }
+
+    private static void addUser(Counters counters, User user, long delta) {
+        Counters.add(counters.usersByProvider, providerOf(user), delta);
+        if (user.getCreatedAt() != null) {
+            Counters.add(counters.signupsByMonth, MONTH.format(user.getCreatedAt()), delta);
+            Counters.add(counters.signupsByDay, user.getCreatedAt().toLocalDate(), delta);
+        }
+        Counters.add(counters.usersByLastLoginDay, dayOf(user.getLastLoginAt()), delta);
+    }
+
+    /**
+     * True for the first of the (up to) two sightings of an insert; always true without the
+     * change stream, where onUserChanged is the only one
+     */
+    private boolean firstSighting(String userId) {
+        if (!changeStreamEnabled || userId == null) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (insertsSeenOnce.putIfAbsent(userId, now) != null) {
+            insertsSeenOnce.remove(userId);
+            return false;
+        }
+        // Other nodes' inserts are only ever seen once
+        if (insertsSeenOnce.size() > MAX_INSERTS_SEEN_ONCE) {
+            insertsSeenOnce.values().removeIf(seenAt -> now - seenAt > INSERT_SEEN_ONCE_TTL_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Drop daily buckets that left the window
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void pruneDailyBuckets() {
+        LocalDate oldest = LocalDate.now().minusDays(DAILY_WINDOW_DAYS - 1);
+        Counters current = counters;
+        current.signupsByDay.keySet().removeIf(day -> day.isBefore(oldest));
+        current.usersByLastLoginDay.keySet().removeIf(day -> day.isBefore(oldest));
+    }
+
+    private void aggregate(Aggregation aggregation, BiConsumer<String, Long> sink) {
+        for (Document group : mongoTemplate.aggregate(aggregation, User.class, Document.class)) {
+            Object key = group.get("_id");
+            sink.accept(key != null ? key.toString() : null, ((Number) group.get("count")).longValue());
+        }
+    }
+
+    // Dates are stored as UTC instants of server-local times, format them back in the server zone
+    private static DateOperators.DateToString formatted(String field, String format) {
+        return DateOperators.dateOf(field)
+            .toString(format)
+            .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()));
+    }
+
+    private static long activeInLastDays(Counters counters, LocalDate today, int days) {
+        LocalDate oldest = today.minusDays(days - 1);
+        long active = 0;
+        for (Map.Entry<LocalDate, LongAdder> bucket : counters.usersByLastLoginDay.entrySet()) {
+            if (!bucket.getKey().isBefore(oldest)) {
+                active += bucket.getValue().sum();
+            }
+        }
+        return Math.max(0, active);
+    }
+
+    private static <K extends Comparable<? super K>> TreeMap<K, Long> sorted(ConcurrentHashMap<K, LongAdder> counters) {
+        TreeMap<K, Long> sorted = new TreeMap<>();
+        counters.forEach((key, count) -> sorted.put(key, count.sum()));
+        return sorted;
+    }
+
+    private static String providerOf(User user) {
+        return user.getProvider() != null ? user.getProvider() : "unknown";
+    }
+
+    private static LocalDate dayOf(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toLocalDate() : null;
+    }
+}
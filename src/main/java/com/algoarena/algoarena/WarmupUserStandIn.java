@@ -0,0 +1,84 @@
+//src/main/java/com/algoarena/algoarena/WarmupUserStandIn.java
+
+package com.algoarena.algoarena;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Non-persisted user for JitWarmup's authenticated requests
+ *
+ * Wraps every UserRepository bean: while a stand-in is active, reads by its providerId
+ * (the identity lookup and the profile version) are answered from memory, everything else,
+ * including any write, goes to the real repository. Nothing reaches the users collection,
+ * so listings, UserStatistics and the change stream never see the warm-up user.
+ */
+@Component
+public class WarmupUserStandIn implements BeanPostProcessor {
+
+    private volatile User standIn;
+
+    /**
+     * Answers reads for user.getProviderId() until deactivate()
+     */
+    void activate(User user) {
+        standIn = user;
+    }
+
+    void deactivate() {
+        standIn = null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof UserRepository repository) {
+            return Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[] {UserRepository.class},
+                (proxy, method, args) -> invoke(repository, method, args));
+        }
+        return bean;
+    }
+
+    private Object invoke(UserRepository repository, Method method, Object[] args) throws Throwable {
+        User user = standIn;
+        if (user != null && args != null && args.length == 1 && user.getProviderId().equals(args[0])) {
+            switch (method.getName()) {
+                case "findIdentityByProviderId", "findByProviderId":
+                    return Optional.of(user);
+                case "findIdentityVersionByProviderId", "findProfileVersionByProviderId":
+                    return Optional.of(versionOf(user));
+                default:
+                    break;
+            }
+        }
+        try {
+            return method.invoke(repository, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static UserRepository.ProfileVersionView versionOf(User user) {
+        return new UserRepository.ProfileVersionView() {
+            @Override
+            public String getId() {
+                return user.getId();
+            }
+
+            @Override
+            public Long getProfileVersion() {
+                return user.getProfileVersion();
+            }
+
+            @Override
+            public LocalDateTime getTokensRevokedAt() {
+                return user.getTokensRevokedAt();
+            }
+        };
+    }
+}
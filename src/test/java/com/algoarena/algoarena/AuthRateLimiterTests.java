@@ -0,0 +1,111 @@
+package com.algoarena.algoarena;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AuthRateLimiter GCRA buckets on a fake clock: burst capacity, refill, per-credential
+ * buckets and the max-keys overflow
+ */
+class AuthRateLimiterTests {
+
+    private static final String PATH = "/api/auth/refresh";
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private AuthRateLimiter limiter;
+
+    // Arbitrary origin, nanoTime values can be negative
+    private final long t0 = -42 * SECOND;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setPath(PATH);
+        policy.setCapacity(5);
+        policy.setRefillPerSecond(1);
+        properties.setPolicies(Map.of("refresh", policy));
+
+        limiter = new AuthRateLimiter();
+        ReflectionTestUtils.setField(limiter, "properties", properties);
+        ReflectionTestUtils.setField(limiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.invokeMethod(limiter, "compilePolicies");
+    }
+
+    @Test
+    void allowsTheBurstThenRejectsWithRetryAfter() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.check(PATH, "10.0.0.1", null, t0).allowed()).as("request %d", i).isTrue();
+        }
+        AuthRateLimiter.Decision rejected = limiter.check(PATH, "10.0.0.1", null, t0);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(1);
+
+        // Other clients have their own bucket, unlimited paths are not checked
+        assertThat(limiter.check(PATH, "10.0.0.2", null, t0).allowed()).isTrue();
+        assertThat(limiter.check("/api/auth/me", "10.0.0.1", null, t0).allowed()).isTrue();
+        assertThat(meterRegistry.counter("auth.ratelimit.rejected", "route", "refresh", "key", "ip").count()).isEqualTo(1);
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionIntervalUpToCapacity() {
+        for (int i = 0; i < 5; i++) {
+            limiter.check(PATH, "10.0.0.1", null, t0);
+        }
+        assertThat(limiter.check(PATH, "10.0.0.1", null, t0 + SECOND / 2).allowed()).isFalse();
+        assertThat(limiter.check(PATH, "10.0.0.1", null, t0 + SECOND).allowed()).isTrue();
+        assertThat(limiter.check(PATH, "10.0.0.1", null, t0 + SECOND).allowed()).isFalse();
+
+        // A long pause refills the bucket to capacity, not beyond
+        long later = t0 + 60 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.check(PATH, "10.0.0.1", null, later).allowed()).as("request %d", i).isTrue();
+        }
+        assertThat(limiter.check(PATH, "10.0.0.1", null, later).allowed()).isFalse();
+    }
+
+    @Test
+    void limitsEachCredentialAcrossClientAddresses() {
+        String key = AuthRateLimiter.credentialKey("header.payload.signature");
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.check(PATH, "10.0.1." + i, key, t0).allowed()).isTrue();
+        }
+        assertThat(limiter.check(PATH, "10.0.1.9", key, t0).allowed()).isFalse();
+        assertThat(limiter.check(PATH, "10.0.1.9", AuthRateLimiter.credentialKey("header.payload.other"), t0).allowed()).isTrue();
+    }
+
+    @Test
+    void credentialKeysAreDigestsNotHashCodes() {
+        // Classic String.hashCode collision: "Aa" and "BB" hash alike, their digests do not
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        assertThat(AuthRateLimiter.credentialKey("Aa")).isNotEqualTo(AuthRateLimiter.credentialKey("BB"));
+        assertThat(AuthRateLimiter.credentialKey("token")).isEqualTo(AuthRateLimiter.credentialKey("token")).hasSize(22);
+    }
+
+    @Test
+    void letsNewKeysThroughOnceMaxKeysIsReachedWithoutTouchingExistingBuckets() {
+        properties.setMaxKeys(2);
+        for (int i = 0; i < 5; i++) {
+            limiter.check(PATH, "10.0.0.1", null, t0);
+        }
+        limiter.check(PATH, "10.0.0.2", null, t0);
+
+        // No room for a third bucket: allowed every time, and counted
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.check(PATH, "10.0.0.3", null, t0).allowed()).isTrue();
+        }
+        assertThat(meterRegistry.counter("auth.ratelimit.overflow").count()).isEqualTo(10);
+        assertThat(meterRegistry.get("auth.ratelimit.buckets").gauge().value()).isEqualTo(2);
+
+        // Tracked clients are still limited
+        assertThat(limiter.check(PATH, "10.0.0.1", null, t0).allowed()).isFalse();
+    }
+}
@@ -0,0 +1,127 @@
+package com.algoarena.algoarena;
+
+import com.algoarena.algoarena.AuthorizationCodeStore.IssuedTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login code handoff stores: single use, expiry and the in-memory capacity bound; the
+ * MongoDB store against a mocked MongoTemplate
+ */
+class AuthorizationCodeStoreTests {
+
+    private final IssuedTokens tokens = new IssuedTokens("access", "refresh");
+
+    private InMemoryAuthorizationCodeStore memoryStore;
+
+    @BeforeEach
+    void setUp() {
+        memoryStore = new InMemoryAuthorizationCodeStore();
+        ReflectionTestUtils.setField(memoryStore, "codeTtlSeconds", 60L);
+        ReflectionTestUtils.setField(memoryStore, "maxPendingCodes", 2);
+    }
+
+    @Test
+    void codesAreUrlSafeAndUnique() {
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            String code = memoryStore.issue(tokens);
+            assertThat(code).hasSize(32).matches("[A-Za-z0-9_-]+");
+            codes.add(code);
+        }
+        assertThat(codes).hasSize(2);
+    }
+
+    @Test
+    void inMemoryCodesCanOnlyBeRedeemedOnce() {
+        String code = memoryStore.issue(tokens);
+
+        assertThat(memoryStore.redeem(code)).contains(tokens);
+        assertThat(memoryStore.redeem(code)).isEmpty();
+        assertThat(memoryStore.redeem("unknown")).isEmpty();
+        assertThat(memoryStore.redeem(null)).isEmpty();
+    }
+
+    @Test
+    void expiredInMemoryCodesAreNotRedeemed() {
+        ReflectionTestUtils.setField(memoryStore, "codeTtlSeconds", -1L);
+        String code = memoryStore.issue(tokens);
+
+        assertThat(memoryStore.redeem(code)).isEmpty();
+    }
+
+    @Test
+    void fullInMemoryStoreRejectsLoginsUntilCodesExpireOrAreRedeemed() {
+        String first = memoryStore.issue(tokens);
+        memoryStore.issue(tokens);
+        assertThatThrownBy(() -> memoryStore.issue(tokens))
+            .isInstanceOf(AuthorizationCodeStore.CapacityExceededException.class);
+
+        // Redeeming frees a slot
+        memoryStore.redeem(first);
+        memoryStore.issue(tokens);
+
+        // Expired codes are purged before a login is turned away
+        InMemoryAuthorizationCodeStore expiring = new InMemoryAuthorizationCodeStore();
+        ReflectionTestUtils.setField(expiring, "codeTtlSeconds", -1L);
+        ReflectionTestUtils.setField(expiring, "maxPendingCodes", 2);
+        expiring.issue(tokens);
+        expiring.issue(tokens);
+        ReflectionTestUtils.setField(expiring, "codeTtlSeconds", 60L);
+        String fresh = expiring.issue(tokens);
+        assertThat(expiring.redeem(fresh)).contains(tokens);
+    }
+
+    @Test
+    void mongoCodesAreRemovedOnRedemption() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        MongoAuthorizationCodeStore mongoStore = mongoStore(mongoTemplate);
+
+        String code = mongoStore.issue(tokens);
+        ArgumentCaptor<LoginCode> stored = ArgumentCaptor.forClass(LoginCode.class);
+        verify(mongoTemplate).insert(stored.capture());
+        assertThat(stored.getValue().getCode()).isEqualTo(code);
+        assertThat(stored.getValue().getExpiresAt()).isAfter(new Date());
+
+        // findAndRemove hands the document to exactly one caller
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(LoginCode.class)))
+            .thenReturn(stored.getValue())
+            .thenReturn(null);
+        assertThat(mongoStore.redeem(code)).contains(tokens);
+        assertThat(mongoStore.redeem(code)).isEmpty();
+        assertThat(mongoStore.redeem(null)).isEmpty();
+    }
+
+    @Test
+    void expiredMongoCodesAreNotRedeemedBeforeTheTtlMonitorRuns() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        MongoAuthorizationCodeStore mongoStore = mongoStore(mongoTemplate);
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(LoginCode.class)))
+            .thenReturn(new LoginCode("c", "access", "refresh", new Date(System.currentTimeMillis() - 1000)));
+
+        assertThat(mongoStore.redeem("c")).isEmpty();
+    }
+
+    private static MongoAuthorizationCodeStore mongoStore(MongoTemplate mongoTemplate) {
+        MongoAuthorizationCodeStore store = new MongoAuthorizationCodeStore();
+        ReflectionTestUtils.setField(store, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(store, "codeTtlSeconds", 60L);
+        return store;
+    }
+}
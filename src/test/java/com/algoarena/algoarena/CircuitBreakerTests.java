@@ -0,0 +1,135 @@
+package com.algoarena.algoarena;
+
+import com.algoarena.algoarena.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CircuitBreaker state machine: CLOSED -> OPEN on the failure or slow-call rate over the
+ * window, OPEN -> HALF_OPEN after the open duration, then back to CLOSED or OPEN on the trials
+ */
+class CircuitBreakerTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final List<State> transitions = new ArrayList<>();
+
+    /**
+     * Window of 4, at least 4 calls, opens at 50% failed or slow (>= 100 ms), two trials
+     */
+    private CircuitBreaker breaker(long openDurationMs) {
+        return new CircuitBreaker(4, 4, 0.5, 0.5, 100, openDurationMs, 2, transitions::add);
+    }
+
+    private static void call(CircuitBreaker breaker, long durationNanos, boolean failed) {
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onResult(durationNanos, failed);
+    }
+
+    @Test
+    void opensOnceTheFailureRateIsReachedOverMinimumCalls() {
+        CircuitBreaker breaker = breaker(60_000);
+        call(breaker, FAST, true);
+        call(breaker, FAST, true);
+        call(breaker, FAST, false);
+        // Two failures out of three: above the rate, but below minimumCalls
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        call(breaker, FAST, false);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(transitions).containsExactly(State.OPEN);
+    }
+
+    @Test
+    void opensOnTheSlowCallRate() {
+        CircuitBreaker breaker = breaker(60_000);
+        call(breaker, SLOW, false);
+        call(breaker, FAST, false);
+        call(breaker, FAST, false);
+        call(breaker, SLOW, false);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void evictsOutcomesOlderThanTheWindow() {
+        CircuitBreaker breaker = breaker(60_000);
+        call(breaker, FAST, true);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, FAST, false);
+        }
+        // The first failure has left the window: one failure in four
+        call(breaker, FAST, true);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        call(breaker, FAST, true);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void ignoresResultsOfCallsStartedBeforeItOpened() {
+        CircuitBreaker breaker = breaker(60_000);
+        assertThat(breaker.tryAcquire()).isTrue();
+        for (int i = 0; i < 4; i++) {
+            call(breaker, FAST, true);
+        }
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+
+        breaker.onResult(FAST, false);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void halfOpensAfterTheOpenDurationAndClosesWhenAllTrialsSucceed() throws InterruptedException {
+        CircuitBreaker breaker = breaker(50);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, FAST, true);
+        }
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        Thread.sleep(80);
+        // Exactly halfOpenCalls trials are admitted
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onResult(FAST, false);
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        breaker.onResult(FAST, false);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(transitions).containsExactly(State.OPEN, State.HALF_OPEN, State.CLOSED);
+
+        // Closed with an empty window: three failures are below minimumCalls again
+        for (int i = 0; i < 3; i++) {
+            call(breaker, FAST, true);
+        }
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void reopensWhenATrialFailsOrIsSlow() throws InterruptedException {
+        CircuitBreaker breaker = breaker(50);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, FAST, true);
+        }
+
+        Thread.sleep(80);
+        call(breaker, FAST, true);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        Thread.sleep(80);
+        call(breaker, FAST, false);
+        call(breaker, SLOW, false);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(transitions).containsExactly(State.OPEN, State.HALF_OPEN, State.OPEN, State.HALF_OPEN, State.OPEN);
+    }
+}
@@ -0,0 +1,113 @@
+package com.algoarena.algoarena;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CorsPreflightFilter: exact and wildcard origins, method and header checks, the bounded
+ * origin memo, and requests that are not preflights passing through untouched
+ */
+class CorsPreflightFilterTests {
+
+    private final CorsPreflightFilter filter = new CorsPreflightFilter();
+
+    @Test
+    void answersPreflightsFromExactOrigins() throws Exception {
+        MockHttpServletResponse response = preflight("http://localhost:3000", "POST", "authorization, Content-Type");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("Access-Control-Allow-Origin")).isEqualTo("http://localhost:3000");
+        assertThat(response.getHeader("Access-Control-Allow-Credentials")).isEqualTo("true");
+        assertThat(response.getHeader("Access-Control-Allow-Methods")).contains("POST");
+        assertThat(response.getHeader("Access-Control-Allow-Headers")).isEqualTo("authorization, Content-Type");
+        assertThat(response.getHeader("Access-Control-Max-Age")).isEqualTo(Long.toString(CorsConfig.MAX_AGE_SECONDS));
+        assertThat(response.getHeader("Vary")).contains("Origin");
+
+        // A trailing slash is the same origin
+        assertThat(preflight("http://localhost:3000/", "GET", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void matchesWildcardOriginsOnTheWholeOrigin() throws Exception {
+        assertThat(preflight("https://my-app-git-main.vercel.app", "GET", null).getStatus()).isEqualTo(200);
+
+        assertThat(preflight("https://evilvercel.app", "GET", null).getStatus()).isEqualTo(403);
+        assertThat(preflight("https://app.vercel.app.evil.com", "GET", null).getStatus()).isEqualTo(403);
+        assertThat(preflight("http://app.vercel.app", "GET", null).getStatus()).isEqualTo(403);
+        assertThat(preflight("http://localhost:3002", "GET", null).getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    void rejectsDisallowedMethodsAndHeaders() throws Exception {
+        MockHttpServletResponse response = preflight("http://localhost:3000", "TRACE", null);
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(response.getHeader("Access-Control-Allow-Origin")).isNull();
+
+        assertThat(preflight("http://localhost:3000", "GET", "Authorization, X-Custom").getStatus()).isEqualTo(403);
+    }
+
+    @Test
+    void memoizesOriginDecisionsUpToTheCap() throws Exception {
+        for (int i = 0; i < 1100; i++) {
+            preflight("https://random-" + i + ".example.com", "GET", null);
+        }
+        Map<?, ?> decisions = (Map<?, ?>) ReflectionTestUtils.getField(filter, "originDecisions");
+        assertThat(decisions).hasSize(1024);
+
+        // Past the cap, origins are still decided, just not remembered
+        assertThat(preflight("https://late.vercel.app", "GET", null).getStatus()).isEqualTo(200);
+        assertThat(preflight("https://late.example.com", "GET", null).getStatus()).isEqualTo(403);
+        assertThat(decisions).hasSize(1024);
+    }
+
+    @Test
+    void leavesRequestsThatAreNotApiPreflightsToTheChain() throws Exception {
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/auth/me");
+        get.addHeader("Origin", "https://evil.example.com");
+        assertPassedThrough(get);
+
+        MockHttpServletRequest withoutRequestMethod = new MockHttpServletRequest("OPTIONS", "/api/auth/me");
+        withoutRequestMethod.addHeader("Origin", "http://localhost:3000");
+        assertPassedThrough(withoutRequestMethod);
+
+        MockHttpServletRequest withoutOrigin = new MockHttpServletRequest("OPTIONS", "/api/auth/me");
+        withoutOrigin.addHeader("Access-Control-Request-Method", "GET");
+        assertPassedThrough(withoutOrigin);
+
+        MockHttpServletRequest otherPath = new MockHttpServletRequest("OPTIONS", "/oauth2/authorization/github");
+        otherPath.addHeader("Origin", "http://localhost:3000");
+        otherPath.addHeader("Access-Control-Request-Method", "GET");
+        assertPassedThrough(otherPath);
+    }
+
+    private MockHttpServletResponse preflight(String origin, String method, String headers) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("OPTIONS", "/api/protected/profile");
+        request.addHeader("Origin", origin);
+        request.addHeader("Access-Control-Request-Method", method);
+        if (headers != null) {
+            request.addHeader("Access-Control-Request-Headers", headers);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        // A preflight is answered here, never passed on
+        assertThat(chain.getRequest()).isNull();
+        return response;
+    }
+
+    private void assertPassedThrough(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(response.getHeader("Access-Control-Allow-Origin")).isNull();
+        assertThat(response.getHeader("Vary")).isNull();
+    }
+}
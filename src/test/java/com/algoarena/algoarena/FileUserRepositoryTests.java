@@ -0,0 +1,61 @@
+package com.algoarena.algoarena;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * FileUserRepository's in-memory sort: direction, ignore-case, null handling and
+ * multi-property orders, as MongoDB would sort the same documents
+ */
+class FileUserRepositoryTests {
+
+    private final User alice = user("1", "alice", 3, LocalDateTime.of(2024, 1, 1, 0, 0));
+    private final User bob = user("2", "Bob", 3, null);
+    private final User carol = user("3", "carol", 1, LocalDateTime.of(2023, 1, 1, 0, 0));
+
+    @Test
+    void sortsByAPropertyInEitherDirection() {
+        assertThat(sorted(Sort.by("loginCount", "username"))).containsExactly(carol, bob, alice);
+        assertThat(sorted(Sort.by(Sort.Direction.DESC, "id"))).containsExactly(carol, bob, alice);
+    }
+
+    @Test
+    void honoursIgnoreCase() {
+        assertThat(sorted(Sort.by("username"))).containsExactly(bob, alice, carol);
+        assertThat(sorted(Sort.by(Sort.Order.asc("username").ignoreCase()))).containsExactly(alice, bob, carol);
+    }
+
+    @Test
+    void putsMissingValuesFirstWhenAscendingLikeMongoDb() {
+        assertThat(sorted(Sort.by("lastLoginAt"))).containsExactly(bob, carol, alice);
+        assertThat(sorted(Sort.by(Sort.Direction.DESC, "lastLoginAt"))).containsExactly(alice, carol, bob);
+        assertThat(sorted(Sort.by(Sort.Order.asc("lastLoginAt").nullsLast()))).containsExactly(carol, alice, bob);
+    }
+
+    @Test
+    void rejectsUnknownOrUnsortableProperties() {
+        assertThatThrownBy(() -> FileUserRepository.comparatorOf(Sort.by("nope")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<User> sorted(Sort sort) {
+        List<User> users = new ArrayList<>(List.of(alice, bob, carol));
+        users.sort(FileUserRepository.comparatorOf(sort));
+        return users;
+    }
+
+    private static User user(String id, String username, long loginCount, LocalDateTime lastLoginAt) {
+        User user = new User("p" + id, "github", username, username + "@example.com", username, null);
+        user.setId(id);
+        user.setLoginCount(loginCount);
+        user.setLastLoginAt(lastLoginAt);
+        return user;
+    }
+}
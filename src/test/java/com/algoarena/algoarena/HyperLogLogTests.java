@@ -0,0 +1,95 @@
+package com.algoarena.algoarena;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * HyperLogLog estimates stay within a few standard errors (~0.8%) from small to large
+ * cardinalities, merging equals sketching the union, and the byte form round-trips
+ */
+class HyperLogLogTests {
+
+    // ~4 standard errors; the inputs are fixed, so the estimates are deterministic
+    private static final double TOLERANCE = 0.03;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 50_000, 100_000, 1_000_000})
+    void estimatesWithinTheErrorBound(int distinct) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < distinct; i++) {
+            sketch.add("user-" + i);
+        }
+        assertThat((double) sketch.estimate()).isCloseTo(distinct, within(distinct * TOLERANCE));
+    }
+
+    @Test
+    void countsSmallSetsAlmostExactly() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertThat(sketch.estimate()).isZero();
+        for (int i = 0; i < 10; i++) {
+            sketch.add("user-" + i);
+        }
+        assertThat(sketch.estimate()).isEqualTo(10);
+    }
+
+    @Test
+    void ignoresDuplicates() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("user-" + i);
+        }
+        long estimate = sketch.estimate();
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int i = 0; i < 5_000; i++) {
+                assertThat(sketch.add("user-" + i)).isFalse();
+            }
+        }
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @Test
+    void mergeEqualsSketchingTheUnion() {
+        HyperLogLog left = new HyperLogLog();
+        HyperLogLog right = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        // Overlapping halves: 0..59999 and 40000..99999
+        for (int i = 0; i < 60_000; i++) {
+            left.add("user-" + i);
+            union.add("user-" + i);
+        }
+        for (int i = 40_000; i < 100_000; i++) {
+            right.add("user-" + i);
+            union.add("user-" + i);
+        }
+
+        left.merge(right);
+
+        assertThat(left.toBytes()).isEqualTo(union.toBytes());
+        assertThat((double) left.estimate()).isCloseTo(100_000, within(100_000 * TOLERANCE));
+        // The merged-in sketch is unchanged
+        assertThat((double) right.estimate()).isCloseTo(60_000, within(60_000 * TOLERANCE));
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 20_000; i++) {
+            sketch.add("user-" + i);
+        }
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog copy = HyperLogLog.fromBytes(bytes);
+        assertThat(copy.estimate()).isEqualTo(sketch.estimate());
+
+        // The copy owns its registers
+        bytes[0] = 60;
+        assertThat(copy.toBytes()[0]).isNotEqualTo((byte) 60);
+
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[16])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,144 @@
+package com.algoarena.algoarena;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MpscRingBuffer: capacity rounding, FIFO order across many laps, rejection when full and
+ * no loss or duplication with concurrent producers
+ */
+class MpscRingBufferTests {
+
+    private record Item(int producer, int sequence) {}
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertThat(new MpscRingBuffer<>(8).capacity()).isEqualTo(8);
+        assertThat(new MpscRingBuffer<>(9).capacity()).isEqualTo(16);
+        assertThat(new MpscRingBuffer<>(1000).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void rejectsWhenFullAndKeepsOrderAcrossWraparound() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 8; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(8)).isFalse();
+        assertThat(buffer.size()).isEqualTo(8);
+
+        // Partial drains move the head around the ring many times
+        List<Integer> drained = new ArrayList<>();
+        int next = 8;
+        for (int lap = 0; lap < 100; lap++) {
+            buffer.drain(drained::add, 3);
+            for (int i = 0; i < 3; i++) {
+                assertThat(buffer.offer(next++)).isTrue();
+            }
+            assertThat(buffer.offer(-1)).isFalse();
+        }
+        buffer.drain(drained::add, Integer.MAX_VALUE);
+
+        assertThat(drained).hasSize(next);
+        for (int i = 0; i < next; i++) {
+            assertThat(drained.get(i)).isEqualTo(i);
+        }
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.drain(drained::add, 10)).isZero();
+    }
+
+    @Test
+    void concurrentProducersIntoAFullBufferStoreExactlyCapacityElements() throws Exception {
+        MpscRingBuffer<Item> buffer = new MpscRingBuffer<>(64);
+        int producers = 8;
+        int perProducer = 10_000;
+
+        List<Integer> accepted = runProducers(buffer, producers, perProducer);
+
+        List<Item> drained = new ArrayList<>();
+        buffer.drain(drained::add, Integer.MAX_VALUE);
+        assertThat(accepted.stream().mapToInt(Integer::intValue).sum()).isEqualTo(64);
+        assertThat(drained).hasSize(64).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void concurrentProducersWithADrainingConsumerLoseAndDuplicateNothing() throws Exception {
+        MpscRingBuffer<Item> buffer = new MpscRingBuffer<>(256);
+        int producers = 8;
+        int perProducer = 50_000;
+
+        AtomicBoolean producing = new AtomicBoolean(true);
+        List<Item> drained = new ArrayList<>();
+        Thread consumer = new Thread(() -> {
+            while (producing.get() || buffer.size() > 0) {
+                if (buffer.drain(drained::add, 64) == 0) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+        consumer.start();
+
+        List<Integer> accepted = runProducers(buffer, producers, perProducer);
+        producing.set(false);
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+        assertThat(consumer.isAlive()).isFalse();
+
+        // Every accepted element was drained once, in each producer's own order
+        assertThat(drained).hasSize(accepted.stream().mapToInt(Integer::intValue).sum());
+        int[] lastSequence = new int[producers];
+        Arrays.fill(lastSequence, -1);
+        Set<Item> seen = new HashSet<>();
+        for (Item item : drained) {
+            assertThat(seen.add(item)).as("duplicate %s", item).isTrue();
+            assertThat(item.sequence()).isGreaterThan(lastSequence[item.producer()]);
+            lastSequence[item.producer()] = item.sequence();
+        }
+    }
+
+    /**
+     * Runs the producers to completion, all starting together, and returns how many offers
+     * each got accepted
+     */
+    private static List<Integer> runProducers(MpscRingBuffer<Item> buffer, int producers, int perProducer)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int ok = 0;
+                    for (int i = 0; i < perProducer; i++) {
+                        if (buffer.offer(new Item(producer, i))) {
+                            ok++;
+                        }
+                    }
+                    return ok;
+                }));
+            }
+            start.countDown();
+            List<Integer> accepted = new ArrayList<>();
+            for (Future<Integer> result : results) {
+                accepted.add(result.get(30, TimeUnit.SECONDS));
+            }
+            return accepted;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
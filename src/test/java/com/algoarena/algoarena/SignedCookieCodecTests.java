@@ -0,0 +1,77 @@
+package com.algoarena.algoarena;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SignedCookieCodec: round trip, rejection of tampered, foreign, expired and malformed values
+ */
+class SignedCookieCodecTests {
+
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hmac-sha256";
+
+    private final SignedCookieCodec codec = new SignedCookieCodec(SECRET);
+
+    @Test
+    void decodesWhatItEncoded() {
+        // Dots in the payload do not confuse the parser, it splits from the end
+        String value = codec.encode("state.with.dots", Duration.ofMinutes(5));
+
+        assertThat(codec.decode(value)).contains("state.with.dots");
+    }
+
+    @Test
+    void rejectsTamperedPayloadExpiryOrSignature() {
+        String value = codec.encode("alice", Duration.ofMinutes(5));
+        String[] parts = value.split("\\.");
+
+        String otherPayload = codec.encode("mallory", Duration.ofMinutes(5)).split("\\.")[0];
+        assertThat(codec.decode(otherPayload + "." + parts[1] + "." + parts[2])).isEmpty();
+        assertThat(codec.decode(parts[0] + "." + (Long.parseLong(parts[1]) + 3600) + "." + parts[2])).isEmpty();
+        assertThat(codec.decode(parts[0] + "." + parts[1] + "." + flipFirstChar(parts[2]))).isEmpty();
+    }
+
+    @Test
+    void rejectsValuesSignedWithAnotherSecret() {
+        String value = new SignedCookieCodec("another-secret-that-is-long-enough-for-hmac-sha256")
+            .encode("alice", Duration.ofMinutes(5));
+
+        assertThat(codec.decode(value)).isEmpty();
+    }
+
+    @Test
+    void rejectsExpiredValues() {
+        String value = codec.encode("alice", Duration.ofSeconds(-1));
+
+        assertThat(codec.decode(value)).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedValues() {
+        assertThat(codec.decode(null)).isEmpty();
+        assertThat(codec.decode("")).isEmpty();
+        assertThat(codec.decode("no-dots")).isEmpty();
+        assertThat(codec.decode("one.dot")).isEmpty();
+        assertThat(codec.decode("YWxpY2U.123.not*base64")).isEmpty();
+        assertThat(codec.decode("..")).isEmpty();
+    }
+
+    @Test
+    void readsTheNamedCookieFromTheRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        assertThat(codec.read(request, "oauth_state")).isEmpty();
+
+        request.setCookies(new Cookie("other", "x"), new Cookie("oauth_state", codec.encode("s1", Duration.ofMinutes(5))));
+        assertThat(codec.read(request, "oauth_state")).contains("s1");
+        assertThat(codec.read(request, "missing")).isEmpty();
+    }
+
+    private static String flipFirstChar(String signature) {
+        return (signature.charAt(0) == 'A' ? 'B' : 'A') + signature.substring(1);
+    }
+}
@@ -0,0 +1,150 @@
+package com.algoarena.algoarena;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SingleFlight: concurrent callers of a key share one execution and its result or exception,
+ * nothing is cached afterwards, and calls bypass coalescing beyond maxKeys keys in flight
+ */
+class SingleFlightTests {
+
+    private static final int FOLLOWERS = 7;
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void coalescesConcurrentCallersIntoOneExecution() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>(16);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Object result = new Object();
+
+        List<Future<Object>> callers = startLeaderAndFollowers(flight, "key", () -> {
+            calls.incrementAndGet();
+            await(release);
+            return result;
+        });
+        release.countDown();
+
+        for (Future<Object> caller : callers) {
+            assertThat(caller.get(5, TimeUnit.SECONDS)).isSameAs(result);
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(flight.executed()).isEqualTo(1);
+        assertThat(flight.coalesced()).isEqualTo(FOLLOWERS);
+        assertThat(flight.inFlight()).isZero();
+
+        // The entry is gone once the call completed: the next caller runs again
+        assertThat(flight.execute("key", () -> "fresh")).isEqualTo("fresh");
+        assertThat(flight.executed()).isEqualTo(2);
+    }
+
+    @Test
+    void propagatesTheLeadersExceptionToFollowersUnwrapped() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>(16);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("store unavailable");
+
+        List<Future<Object>> callers = startLeaderAndFollowers(flight, "key", () -> {
+            await(release);
+            throw failure;
+        });
+        release.countDown();
+
+        for (Future<Object> caller : callers) {
+            assertThatThrownBy(() -> caller.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause().isSameAs(failure);
+        }
+        assertThat(flight.inFlight()).isZero();
+
+        // Failures are not cached either
+        assertThat(flight.execute("key", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void bypassesCoalescingOnceMaxKeysAreInFlight() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = pool.submit(() -> flight.execute("a", () -> {
+            await(release);
+            return "a";
+        }));
+        waitUntil(() -> flight.inFlight() == 1);
+
+        // The map is full: another key, and even the in-flight key, run uncoalesced
+        assertThat(flight.execute("b", () -> "b")).isEqualTo("b");
+        assertThat(flight.execute("a", () -> "a again")).isEqualTo("a again");
+        assertThat(flight.bypassed()).isEqualTo(2);
+        assertThat(flight.coalesced()).isZero();
+        assertThat(flight.inFlight()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+        assertThat(flight.inFlight()).isZero();
+        assertThat(flight.executed()).isEqualTo(1);
+    }
+
+    @Test
+    void runsNullKeysUncoalesced() {
+        SingleFlight<String, Object> flight = new SingleFlight<>(16);
+        assertThat(flight.execute(null, () -> "x")).isEqualTo("x");
+        assertThat(flight.bypassed()).isEqualTo(1);
+        assertThat(flight.executed()).isZero();
+    }
+
+    /**
+     * Starts a leader blocked in call, then FOLLOWERS callers of the same key, and returns once
+     * all of them are waiting on the leader
+     */
+    private List<Future<Object>> startLeaderAndFollowers(SingleFlight<String, Object> flight, String key,
+                                                         Supplier<Object> call) throws InterruptedException {
+        List<Future<Object>> callers = new ArrayList<>();
+        callers.add(pool.submit(() -> flight.execute(key, call)));
+        waitUntil(() -> flight.executed() == 1);
+        for (int i = 0; i < FOLLOWERS; i++) {
+            callers.add(pool.submit(() -> flight.execute(key, () -> {
+                throw new AssertionError("follower executed its own call");
+            })));
+        }
+        waitUntil(() -> flight.coalesced() == FOLLOWERS);
+        return callers;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("timed out waiting").isNegative();
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.algoarena.algoarena;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.eq;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * UserChangeStream against a throwaway single-node replica set (MongoDBContainer starts mongod
+ * with --replSet, which change streams need). Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+    "change-stream.enabled=true",
+    "change-stream.consumer-id=test-node",
+    "change-stream.token-flush-ms=0",
+    "warmup.enabled=false",
+    "GOOGLE_CLIENT_ID=test",
+    "GOOGLE_CLIENT_SECRET=test",
+    "GITHUB_CLIENT_ID=test",
+    "GITHUB_CLIENT_SECRET=test"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class UserChangeStreamTests {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @TestConfiguration
+    static class RecordingListener {
+        final BlockingQueue<UserChangeStreamEvent> events = new LinkedBlockingQueue<>();
+
+        @EventListener
+        void onUserChangeStream(UserChangeStreamEvent event) {
+            events.add(event);
+        }
+    }
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void publishesTypedEventsForWritesAndPersistsTheResumeToken() throws InterruptedException {
+        Document openedAt = awaitResumeToken(null);
+
+        User user = userRepository.save(new User("stream-1", "github", "Stream User", "stream@example.com", "stream", null));
+        UserChangeStreamEvent inserted = next(UserChangeStreamEvent.Type.INSERTED);
+        assertThat(inserted.userId()).isEqualTo(user.getId());
+        assertThat(inserted.user().getProviderId()).isEqualTo("stream-1");
+
+        userService.updateUserById(user.getId(), "Renamed", null);
+        UserChangeStreamEvent updated = next(UserChangeStreamEvent.Type.UPDATED);
+        assertThat(updated.userId()).isEqualTo(user.getId());
+        assertThat(updated.user().getName()).isEqualTo("Renamed");
+        assertThat(updated.user().getProfileVersion()).isGreaterThan(inserted.user().getProfileVersion());
+
+        userService.deleteUser(user.getId());
+        UserChangeStreamEvent deleted = next(UserChangeStreamEvent.Type.DELETED);
+        assertThat(deleted.userId()).isEqualTo(user.getId());
+        assertThat(deleted.user()).isNull();
+
+        // The persisted token moved past the position the stream was opened at
+        Document afterWrites = awaitResumeToken(openedAt.get("token"));
+        assertThat(afterWrites.get("token")).isNotEqualTo(openedAt.get("token"));
+    }
+
+    /**
+     * Waits for a persisted token different from previous (null: any token, i.e. the stream is open)
+     */
+    private Document awaitResumeToken(Object previous) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (System.nanoTime() < deadline) {
+            Document offset = mongoTemplate.getCollection(UserChangeStream.OFFSETS_COLLECTION)
+                .find(eq("_id", "test-node")).first();
+            if (offset != null && offset.get("token") != null && !offset.get("token").equals(previous)) {
+                return offset;
+            }
+            Thread.sleep(50);
+        }
+        return fail("No resume token was persisted");
+    }
+
+    private UserChangeStreamEvent next(UserChangeStreamEvent.Type type) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            UserChangeStreamEvent event = listener.events.poll(remaining, TimeUnit.NANOSECONDS);
+            if (event != null && event.type() == type) {
+                return event;
+            }
+        }
+        return fail("No " + type + " event within 10 s");
+    }
+}
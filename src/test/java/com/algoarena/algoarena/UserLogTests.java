@@ -0,0 +1,233 @@
+package com.algoarena.algoarena;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * UserLog durability: replay on reopen (including deletes), recovery from a torn tail,
+ * compaction swapping in a smaller file, and the unique providerId index
+ */
+class UserLogTests {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private UserLog log;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    private UserLog open() throws IOException {
+        file = dir.resolve("users.log");
+        log = UserLog.open(file, 4096);
+        return log;
+    }
+
+    private UserLog reopen() throws IOException {
+        log.close();
+        return open();
+    }
+
+    @Test
+    void replaysPutsUpdatesAndDeletesOnReopen() throws IOException {
+        open();
+        User alice = user("1", "alice");
+        log.put(alice);
+        log.put(user("2", "bob"));
+        log.put(user("3", "carol"));
+        alice.setName("Alice Renamed");
+        alice.setEmail("alice@new.example.com");
+        alice.setLoginCount(7);
+        log.put(alice);
+        assertThat(log.delete("2")).isTrue();
+        assertThat(log.delete("2")).isFalse();
+
+        reopen();
+
+        assertThat(log.size()).isEqualTo(2);
+        User replayed = log.get("1");
+        assertThat(replayed.getName()).isEqualTo("Alice Renamed");
+        assertThat(replayed.getLoginCount()).isEqualTo(7);
+        assertThat(replayed.getCreatedAt()).isEqualTo(alice.getCreatedAt());
+        assertThat(log.findByEmail("alice@new.example.com")).isNotNull();
+        assertThat(log.findByEmail("alice@example.com")).isNull();
+        // The delete was replayed, including its secondary index entries
+        assertThat(log.get("2")).isNull();
+        assertThat(log.containsProviderId("bob")).isFalse();
+        assertThat(log.findByUsername("bob")).isNull();
+        assertThat(log.findByProviderId("carol").getId()).isEqualTo("3");
+        assertThat(log.recoveredTailBytes()).isZero();
+    }
+
+    @Test
+    void rejectsAProviderIdOwnedByAnotherUser() throws IOException {
+        open();
+        log.put(user("1", "alice"));
+        User impostor = user("2", "alice");
+
+        assertThatThrownBy(() -> log.put(impostor)).isInstanceOf(DuplicateKeyException.class);
+        assertThat(log.size()).isEqualTo(1);
+
+        // Once the owner is deleted the providerId is free again
+        log.delete("1");
+        log.put(impostor);
+        assertThat(log.findByProviderId("alice").getId()).isEqualTo("2");
+    }
+
+    @Test
+    void recoversFromATornWriteAtTheTail() throws IOException {
+        open();
+        log.put(user("1", "alice"));
+        log.put(user("2", "bob"));
+        long validBytes = log.logBytes();
+        log.close();
+
+        // A record whose length made it to disk but whose body did not
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(12).putInt(50).putInt(123).putInt(7).flip(), validBytes);
+        }
+
+        open();
+        assertThat(log.recoveredTailBytes()).isPositive();
+        assertThat(log.logBytes()).isEqualTo(validBytes);
+        assertThat(log.size()).isEqualTo(2);
+
+        // Appends go where the torn record was and survive the next reopen
+        log.put(user("3", "carol"));
+        reopen();
+        assertThat(log.recoveredTailBytes()).isZero();
+        assertThat(log.size()).isEqualTo(3);
+        assertThat(log.findByProviderId("carol")).isNotNull();
+    }
+
+    @Test
+    void dropsACompleteRecordWhoseChecksumDoesNotMatch() throws IOException {
+        open();
+        log.put(user("1", "alice"));
+        long firstRecordEnd = log.logBytes();
+        log.put(user("2", "bob"));
+        log.close();
+
+        // Flip the last byte of the second record's body
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, firstRecordEnd);
+            long lastBodyByte = firstRecordEnd + 8 + length.flip().getInt() - 1;
+            ByteBuffer body = ByteBuffer.allocate(1);
+            channel.read(body, lastBodyByte);
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) ~body.get(0)}), lastBodyByte);
+        }
+
+        open();
+        assertThat(log.logBytes()).isEqualTo(firstRecordEnd);
+        assertThat(log.recoveredTailBytes()).isPositive();
+        assertThat(log.containsId("1")).isTrue();
+        assertThat(log.containsId("2")).isFalse();
+    }
+
+    @Test
+    void compactionSwapsInTheLiveRecordsOnly() throws IOException {
+        open();
+        for (int i = 0; i < 100; i++) {
+            log.put(user(String.valueOf(i), "user" + i));
+        }
+        User hot = user("0", "user0");
+        for (int i = 0; i < 200; i++) {
+            hot.setLoginCount(i);
+            log.put(hot);
+        }
+        for (int i = 50; i < 100; i++) {
+            log.delete(String.valueOf(i));
+        }
+        long before = log.logBytes();
+        assertThat(log.garbageRatio()).isGreaterThan(0.5);
+
+        log.compact();
+
+        assertThat(log.garbageRatio()).isZero();
+        assertThat(log.logBytes()).isLessThan(before / 4);
+        assertThat(log.size()).isEqualTo(50);
+        assertThat(log.get("0").getLoginCount()).isEqualTo(199);
+        assertThat(log.findByUsername("user49").getId()).isEqualTo("49");
+        assertThat(log.get("50")).isNull();
+        assertThat(Files.exists(dir.resolve("users.log.compact"))).isFalse();
+
+        // Writes go to the new file, and the compacted log replays on reopen
+        log.put(user("100", "user100"));
+        log.delete("1");
+        reopen();
+        assertThat(log.size()).isEqualTo(50);
+        assertThat(log.get("0").getLoginCount()).isEqualTo(199);
+        assertThat(log.findByProviderId("user100")).isNotNull();
+        assertThat(log.get("1")).isNull();
+        assertThat(log.garbageRatio()).isGreaterThan(0).isLessThan(0.1);
+    }
+
+    @Test
+    void growsPastTheInitialMapping() throws IOException {
+        open();
+        for (int i = 0; i < 500; i++) {
+            log.put(user(String.valueOf(i), "user" + i));
+        }
+        assertThat(log.logBytes()).isGreaterThan(4096);
+
+        reopen();
+        assertThat(log.size()).isEqualTo(500);
+        assertThat(log.findByEmail("user499@example.com").getId()).isEqualTo("499");
+    }
+
+    @Test
+    void versionedPutsNeverStoreTheSameVersionTwice() throws IOException {
+        open();
+        log.put(user("1", "alice"));
+
+        // Two writers that both loaded version 0
+        User first = log.get("1");
+        User second = log.get("1");
+        first.setName("First");
+        second.setName("Second");
+        log.putVersioned(first);
+        log.putVersioned(second);
+
+        assertThat(first.getProfileVersion()).isEqualTo(1);
+        assertThat(second.getProfileVersion()).isEqualTo(2);
+        reopen();
+        assertThat(log.get("1").getProfileVersion()).isEqualTo(2);
+        assertThat(log.get("1").getName()).isEqualTo("Second");
+    }
+
+    @Test
+    void deletesALeftoverCompactionFileOnOpen() throws IOException {
+        Path leftover = dir.resolve("users.log.compact");
+        Files.write(leftover, new byte[] {1, 2, 3});
+
+        open();
+        assertThat(Files.exists(leftover)).isFalse();
+        assertThat(log.size()).isZero();
+    }
+
+    private static User user(String id, String providerId) {
+        User user = new User(providerId, "github", "Name " + providerId, providerId + "@example.com", providerId, null);
+        user.setId(id);
+        user.setCreatedAt(LocalDateTime.now());
+        return user;
+    }
+}
@@ -0,0 +1,49 @@
+package com.algoarena.algoarena;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The versioned update behind saveTracked: every stored field is set or unset from the
+ * user, and profileVersion is incremented by the server instead of taken from the copy
+ */
+class UserRepositoryCustomImplTests {
+
+    private final MappingMongoConverter converter = converter();
+
+    // Set up like Boot's: java.time values are simple types, converted to dates
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    @Test
+    void setsEveryFieldAndIncrementsTheVersion() {
+        User user = new User("p1", "github", "Alice", "alice@example.com", "alice", null);
+        user.setId("65f0c0ffee0000000000beef");
+        user.setProfileVersion(41);
+
+        Document update = UserRepositoryCustomImpl.versionedUpdate(converter, user).getUpdateObject();
+
+        Document set = update.get("$set", Document.class);
+        assertThat(set).containsEntry("name", "Alice").containsEntry("providerId", "p1")
+            .containsKeys("createdAt", "lastLoginAt", "loginCount")
+            .doesNotContainKeys("_id", "profileVersion", "avatarUrl");
+        // Null fields are removed, as a full replace would
+        assertThat(update.get("$unset", Document.class)).containsKeys("avatarUrl", "tokensRevokedAt");
+        assertThat(update.get("$inc", Document.class)).containsEntry("profileVersion", 1);
+    }
+}
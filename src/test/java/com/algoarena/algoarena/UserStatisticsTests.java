@@ -0,0 +1,200 @@
+package com.algoarena.algoarena;
+
+import com.algoarena.algoarena.ApiResponses.ActiveUsers;
+import com.algoarena.algoarena.ApiResponses.PeriodCount;
+import com.algoarena.algoarena.ApiResponses.ProviderCount;
+import com.algoarena.algoarena.ApiResponses.UserStatsResponse;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * UserStatistics bucket math: incremental updates from UserChangedEvents and change stream
+ * inserts, and the rebuild from aggregation results replacing them
+ */
+class UserStatisticsTests {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final LocalDate today = now.toLocalDate();
+
+    private UserStatistics statistics;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new UserStatistics();
+        mongoTemplate = mock(MongoTemplate.class);
+        ReflectionTestUtils.setField(statistics, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(statistics, "reconcileEnabled", true);
+    }
+
+    @Test
+    void incrementalUpdatesMaintainProviderMonthDayAndActiveBuckets() {
+        User recent = user("a", "google", now, now);
+        User older = user("b", "github", now.minusDays(10), now.minusDays(10));
+        User outsideWindow = user("c", "google", now.minusDays(200), null);
+        for (User user : List.of(recent, older, outsideWindow)) {
+            statistics.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.CREATED, user, null));
+        }
+
+        UserStatsResponse stats = statistics.snapshot(null);
+        assertThat(stats.totalUsers()).isEqualTo(3);
+        assertThat(stats.usersByProvider()).containsExactly(new ProviderCount("github", 1), new ProviderCount("google", 2));
+        assertThat(stats.signupsByMonth()).containsExactlyElementsOf(expectedMonths(recent, older, outsideWindow));
+        // The 200-day-old signup is outside the daily window
+        assertThat(stats.signupsByDay()).containsExactly(
+            new PeriodCount(today.minusDays(10).toString(), 1), new PeriodCount(today.toString(), 1));
+        assertThat(active(stats, 1)).isEqualTo(1);
+        assertThat(active(stats, 7)).isEqualTo(1);
+        assertThat(active(stats, 30)).isEqualTo(2);
+
+        // A login moves the user from its old last-login bucket to today's
+        LocalDateTime previousLogin = older.getLastLoginAt();
+        older.setLastLoginAt(now);
+        statistics.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.LOGGED_IN, older, previousLogin));
+        stats = statistics.snapshot(null);
+        assertThat(active(stats, 1)).isEqualTo(2);
+        assertThat(active(stats, 30)).isEqualTo(2);
+
+        // A second login the same day changes nothing
+        statistics.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.LOGGED_IN, older, now));
+        assertThat(active(statistics.snapshot(null), 1)).isEqualTo(2);
+
+        // Deletion undoes every bucket of the user, empty days disappear
+        statistics.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.DELETED, recent, null));
+        stats = statistics.snapshot(15);
+        assertThat(stats.totalUsers()).isEqualTo(2);
+        assertThat(stats.usersByProvider()).containsExactly(new ProviderCount("github", 1), new ProviderCount("google", 1));
+        assertThat(stats.signupsByDay()).containsExactly(new PeriodCount(today.minusDays(10).toString(), 1));
+        assertThat(active(stats, 1)).isEqualTo(1);
+        assertThat(active(stats, 15)).isEqualTo(1);
+    }
+
+    @Test
+    void reconcileReplacesIncrementalCountersWithTheAggregation() {
+        statistics.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.CREATED, user("a", "github", now, now), null));
+
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(User.class), eq(Document.class)))
+            .thenReturn(results(group("google", 5), group(null, 1)))
+            .thenReturn(results(group("2024-01", 6)))
+            .thenReturn(results(group(today.toString(), 2)))
+            .thenReturn(results(group(today.minusDays(3).toString(), 4), group(today.minusDays(UserStatistics.DAILY_WINDOW_DAYS).toString(), 9)));
+
+        statistics.reconcile();
+
+        UserStatsResponse stats = statistics.snapshot(null);
+        assertThat(stats.reconciledAt()).isNotNull();
+        assertThat(stats.totalUsers()).isEqualTo(6);
+        assertThat(stats.usersByProvider()).containsExactly(new ProviderCount("google", 5), new ProviderCount("unknown", 1));
+        assertThat(stats.signupsByMonth()).containsExactly(new PeriodCount("2024-01", 6));
+        assertThat(stats.signupsByDay()).containsExactly(new PeriodCount(today.toString(), 2));
+        assertThat(active(stats, 1)).isZero();
+        // The bucket one day past the window is not counted
+        assertThat(active(stats, 7)).isEqualTo(4);
+        assertThat(active(stats, 30)).isEqualTo(4);
+    }
+
+    @Test
+    void failedReconcileKeepsIncrementalCounters() {
+        statistics.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.CREATED, user("a", "github", now, now), null));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(User.class), eq(Document.class)))
+            .thenThrow(new IllegalStateException("unreachable"));
+
+        statistics.reconcile();
+
+        UserStatsResponse stats = statistics.snapshot(null);
+        assertThat(stats.reconciledAt()).isNull();
+        assertThat(stats.totalUsers()).isEqualTo(1);
+        assertThat(active(stats, 1)).isEqualTo(1);
+    }
+
+    @Test
+    void changeStreamInsertsCountOnceWhetherLocalOrFromAnotherNode() {
+        ReflectionTestUtils.setField(statistics, "changeStreamEnabled", true);
+        User local = user("a", "github", now, now);
+        User echoedFirst = user("b", "github", now, now);
+        User remote = user("c", "google", now, now);
+
+        // This node's signup reaches both listeners, in either order
+        statistics.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.CREATED, local, null));
+        statistics.onUserChangeStream(inserted(local));
+        statistics.onUserChangeStream(inserted(echoedFirst));
+        statistics.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.CREATED, echoedFirst, null));
+        // Another node's signup only arrives through the stream
+        statistics.onUserChangeStream(inserted(remote));
+
+        UserStatsResponse stats = statistics.snapshot(null);
+        assertThat(stats.totalUsers()).isEqualTo(3);
+        assertThat(stats.usersByProvider()).containsExactly(new ProviderCount("github", 2), new ProviderCount("google", 1));
+        assertThat(stats.signupsByDay()).containsExactly(new PeriodCount(today.toString(), 3));
+        assertThat(active(stats, 1)).isEqualTo(3);
+    }
+
+    @Test
+    void changeStreamResyncSchedulesAReconcile() {
+        TaskScheduler taskScheduler = mock(TaskScheduler.class);
+        ReflectionTestUtils.setField(statistics, "taskScheduler", taskScheduler);
+
+        statistics.onUserChangeStream(new UserChangeStreamEvent(UserChangeStreamEvent.Type.RESYNC, null, null));
+
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    private static UserChangeStreamEvent inserted(User user) {
+        return new UserChangeStreamEvent(UserChangeStreamEvent.Type.INSERTED, user.getId(), user);
+    }
+
+    private static User user(String providerId, String provider, LocalDateTime createdAt, LocalDateTime lastLoginAt) {
+        User user = new User(providerId, provider, providerId, providerId + "@example.com", providerId, null);
+        user.setId(providerId);
+        user.setCreatedAt(createdAt);
+        user.setLastLoginAt(lastLoginAt);
+        return user;
+    }
+
+    private static List<PeriodCount> expectedMonths(User... users) {
+        Map<String, Long> months = new TreeMap<>();
+        for (User user : users) {
+            months.merge(MONTH.format(user.getCreatedAt()), 1L, Long::sum);
+        }
+        return months.entrySet().stream().map(e -> new PeriodCount(e.getKey(), e.getValue())).toList();
+    }
+
+    private static long active(UserStatsResponse stats, int days) {
+        return stats.activeUsers().stream()
+            .filter(a -> a.days() == days)
+            .mapToLong(ActiveUsers::count)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static Document group(String key, long count) {
+        return new Document("_id", key).append("count", count);
+    }
+
+    private static AggregationResults<Document> results(Document... groups) {
+        return new AggregationResults<>(List.of(groups), new Document());
+    }
+}